@@ -1,13 +1,21 @@
 package com.konecta.auth_service;
 
 import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 
+import com.konecta.auth_service.importer.UserImportRunner;
+
 @SpringBootApplication
 public class AuthServiceApplication {
 
 	public static void main(String[] args) {
-		SpringApplication.run(AuthServiceApplication.class, args);
+		SpringApplication application = new SpringApplication(AuthServiceApplication.class);
+		if (UserImportRunner.isImportRun(args)) {
+			// An import runs next to the live service, so it must not bind the HTTP port
+			application.setWebApplicationType(WebApplicationType.NONE);
+		}
+		application.run(args);
 	}
 
 }
@@ -0,0 +1,31 @@
+package com.konecta.auth_service.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.konecta.auth_service.security.BoundedPasswordEncoder;
+
+import java.time.Duration;
+
+/**
+ * Password hashing, kept apart from {@link SecurityConfig} because it is also needed when the
+ * service starts without a web server.
+ */
+@Configuration
+public class PasswordConfig {
+
+    @Bean
+    public PasswordEncoder passwordEncoder(@Value("${auth.password.bcrypt-strength:10}") int strength,
+                                           @Value("${auth.password.hashing-threads:0}") int threads,
+                                           @Value("${auth.password.queue-capacity:64}") int queueCapacity,
+                                           @Value("${auth.password.timeout:5s}") Duration timeout,
+                                           MeterRegistry meterRegistry) {
+        // BCrypt is CPU-bound: hash on a bounded pool sized to the cores so request threads never all hash at once
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(strength), poolSize, queueCapacity, timeout, meterRegistry);
+    }
+}
@@ -1,13 +1,18 @@
 package com.konecta.auth_service.controller;
 
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import lombok.RequiredArgsConstructor;
 
 import java.util.Map;
 
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 
@@ -15,6 +20,10 @@ import com.konecta.auth_service.model.Role;
 import com.konecta.auth_service.model.User;
 import com.konecta.auth_service.repository.UserRepository;
 import com.konecta.auth_service.security.JwtUtil;
+import com.konecta.auth_service.security.PasswordHashingOverloadedException;
+import com.konecta.auth_service.service.CustomUserDetailsService;
+import com.konecta.auth_service.service.TokenRevocationService;
+import com.konecta.auth_service.service.UserDetailsCache.CachedUser;
 import com.konecta.auth_service.dto.LoginRequest;
 
 @RestController
@@ -25,22 +34,23 @@ public class AuthController {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final JwtUtil jwtUtil;
-    private final AuthenticationManager authenticationManager;
+    private final CustomUserDetailsService userDetailsService;
+    private final TokenRevocationService revocationService;
 
     @PostMapping("/register")
     public ResponseEntity<?> register(@RequestBody User user) {
-        // Prevent duplicate usernames
-        if (userRepository.findByUsername(user.getUsername()).isPresent()) {
-            return ResponseEntity.badRequest().body("Username already exists");
-        }
-
         // Set a default role if not provided
         if (user.getRole() == null) {
             user.setRole(Role.CUSTOMER);
         }
 
         user.setPassword(passwordEncoder.encode(user.getPassword()));
-        userRepository.save(user);
+        try {
+            // Duplicates are caught by the unique constraints instead of a separate lookup
+            userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            return ResponseEntity.badRequest().body("Username or email already exists");
+        }
         return ResponseEntity.ok("User registered successfully");
     }
 
@@ -49,14 +59,50 @@ public class AuthController {
         String email = loginRequest.getEmail();
         String password = loginRequest.getPassword();
 
-        // Resolve the username by email first
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("Invalid credentials"));
-
-        authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(user.getUsername(), password));
+        // Resolve the user by email once and check the password against that same row
+        CachedUser user;
+        try {
+            user = userDetailsService.loadUserByEmail(email);
+        } catch (UsernameNotFoundException e) {
+            throw new BadCredentialsException("Invalid credentials");
+        }
+        if (!passwordEncoder.matches(password, user.password())) {
+            throw new BadCredentialsException("Invalid credentials");
+        }
 
-        String token = jwtUtil.generateToken(user.getUsername());
+        String token = jwtUtil.generateToken(user.username(),
+                user.role() == null ? null : user.role().name());
         return ResponseEntity.ok(Map.of("token", token));
     }
+
+    @PostMapping("/logout")
+    public ResponseEntity<?> logout(@RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String auth) {
+        if (auth == null || !auth.startsWith("Bearer ")) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        Claims claims;
+        try {
+            claims = jwtUtil.parseClaims(auth.substring(7));
+        } catch (JwtException e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        if (claims.getId() == null) {
+            return ResponseEntity.badRequest().body("Token has no id and cannot be revoked");
+        }
+        revocationService.revoke(claims.getId(), claims.getSubject(),
+                claims.getExpiration() == null ? null : claims.getExpiration().toInstant());
+        return ResponseEntity.ok("Logged out");
+    }
+
+    @ExceptionHandler(BadCredentialsException.class)
+    public ResponseEntity<?> badCredentials(BadCredentialsException e) {
+        return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(e.getMessage());
+    }
+
+    @ExceptionHandler(PasswordHashingOverloadedException.class)
+    public ResponseEntity<?> hashingOverloaded(PasswordHashingOverloadedException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(e.getMessage());
+    }
 }
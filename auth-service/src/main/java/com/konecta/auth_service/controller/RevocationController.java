@@ -0,0 +1,90 @@
+package com.konecta.auth_service.controller;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import lombok.RequiredArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import com.konecta.auth_service.security.JwtUtil;
+import com.konecta.auth_service.service.TokenRevocationService;
+
+/**
+ * Revocation endpoints: the Bloom-filter snapshot and exact lookups consumed by the gateway and
+ * order-service, plus forced revocation of another user's token by an admin.
+ */
+@RestController
+@RequestMapping("/api/auth/revocations")
+@RequiredArgsConstructor
+public class RevocationController {
+
+    private final TokenRevocationService revocationService;
+    private final JwtUtil jwtUtil;
+
+    @GetMapping("/snapshot")
+    public ResponseEntity<byte[]> snapshot(@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        TokenRevocationService.Snapshot snapshot = revocationService.snapshot();
+        String etag = "\"" + Long.toHexString(snapshot.version()) + "\"";
+        if (etag.equals(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .body(snapshot.bytes());
+    }
+
+    @GetMapping("/{jti}")
+    public Map<String, Object> check(@PathVariable String jti) {
+        return Map.of("jti", jti, "revoked", revocationService.isRevoked(jti));
+    }
+
+    @PostMapping
+    public ResponseEntity<?> revoke(@RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String auth,
+                                    @RequestBody Map<String, String> body) {
+        Claims caller = bearerClaims(auth);
+        if (caller == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        Object roles = caller.get("roles");
+        if (!(roles instanceof List<?> list) || !list.contains("ADMIN")) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+
+        String token = body.get("token");
+        if (token == null) {
+            return ResponseEntity.badRequest().body("token is required");
+        }
+        Claims target;
+        try {
+            target = jwtUtil.parseClaims(token);
+        } catch (JwtException e) {
+            return ResponseEntity.badRequest().body("Invalid token");
+        }
+        if (target.getId() == null) {
+            return ResponseEntity.badRequest().body("Token has no id and cannot be revoked");
+        }
+        revocationService.revoke(target.getId(), target.getSubject(),
+                target.getExpiration() == null ? null : target.getExpiration().toInstant());
+        return ResponseEntity.ok("Token revoked");
+    }
+
+    private Claims bearerClaims(String auth) {
+        if (auth == null || !auth.startsWith("Bearer ")) {
+            return null;
+        }
+        try {
+            Claims claims = jwtUtil.parseClaims(auth.substring(7));
+            return claims.getId() != null && revocationService.isRevoked(claims.getId()) ? null : claims;
+        } catch (JwtException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package com.konecta.auth_service.importer;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.konecta.auth_service.model.Role;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Streams users from an NDJSON or CSV source one line at a time, so arbitrarily large files are
+ * never held in memory. CSV files must start with a header naming the
+ * {@code username,email,password[,role]} columns in any order.
+ */
+public class UserImportReader implements Closeable {
+
+    // BCrypt rejects longer passwords; catching them here turns them into row rejects
+    private static final int MAX_PASSWORD_BYTES = 72;
+
+    public enum Format {
+        CSV, NDJSON;
+
+        public static Format of(String fileName) {
+            String lower = fileName.toLowerCase(Locale.ROOT);
+            return lower.endsWith(".csv") ? CSV : NDJSON;
+        }
+    }
+
+    /** Outcome of reading one line: either a row or the reason it could not be parsed. */
+    public record Result(long line, UserImportRow row, String error) {
+    }
+
+    private final BufferedReader reader;
+    private final Format format;
+    private final ObjectMapper objectMapper;
+    private Map<String, Integer> columns;
+    private long line;
+
+    public UserImportReader(BufferedReader reader, Format format, ObjectMapper objectMapper) throws IOException {
+        this.reader = reader;
+        this.format = format;
+        this.objectMapper = objectMapper;
+        if (format == Format.CSV) {
+            readHeader();
+        }
+    }
+
+    /**
+     * Returns the next non-blank line, or {@code null} at end of input.
+     */
+    public Result next() throws IOException {
+        String text;
+        do {
+            text = reader.readLine();
+            if (text == null) {
+                return null;
+            }
+            line++;
+        } while (text.isBlank());
+
+        try {
+            UserImportRow row = format == Format.CSV ? parseCsv(text) : parseJson(text);
+            return new Result(line, row, null);
+        } catch (IllegalArgumentException | IOException e) {
+            return new Result(line, null, e.getMessage());
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private void readHeader() throws IOException {
+        String header = reader.readLine();
+        line++;
+        if (header == null) {
+            throw new IOException("CSV input is empty");
+        }
+        columns = new HashMap<>();
+        List<String> names = splitCsv(header);
+        for (int i = 0; i < names.size(); i++) {
+            columns.put(names.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        if (!columns.containsKey("username") || !columns.containsKey("password")) {
+            throw new IOException("CSV header must contain username and password columns");
+        }
+    }
+
+    private UserImportRow parseCsv(String text) {
+        List<String> fields = splitCsv(text);
+        return row(csvField(fields, "username"), csvField(fields, "email"),
+                csvField(fields, "password"), csvField(fields, "role"));
+    }
+
+    private String csvField(List<String> fields, String column) {
+        Integer index = columns.get(column);
+        return index == null || index >= fields.size() ? null : fields.get(index);
+    }
+
+    private UserImportRow parseJson(String text) throws IOException {
+        JsonNode node = objectMapper.readTree(text);
+        if (node == null || !node.isObject()) {
+            throw new IllegalArgumentException("line is not a JSON object");
+        }
+        return row(jsonField(node, "username"), jsonField(node, "email"),
+                jsonField(node, "password"), jsonField(node, "role"));
+    }
+
+    private static String jsonField(JsonNode node, String name) {
+        JsonNode value = node.get(name);
+        return value == null || value.isNull() ? null : value.asText();
+    }
+
+    private UserImportRow row(String username, String email, String password, String role) {
+        username = trimToNull(username);
+        email = trimToNull(email);
+        role = trimToNull(role);
+        if (username == null) {
+            throw new IllegalArgumentException("username is required");
+        }
+        if (password == null || password.isEmpty()) {
+            throw new IllegalArgumentException("password is required");
+        }
+        if (password.getBytes(StandardCharsets.UTF_8).length > MAX_PASSWORD_BYTES) {
+            throw new IllegalArgumentException("password is longer than " + MAX_PASSWORD_BYTES + " bytes");
+        }
+        Role parsedRole;
+        try {
+            parsedRole = role == null ? Role.CUSTOMER : Role.valueOf(role.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("unknown role " + role);
+        }
+        return new UserImportRow(line, username, email, password, parsedRole);
+    }
+
+    private static String trimToNull(String value) {
+        if (value == null) {
+            return null;
+        }
+        String trimmed = value.trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+
+    /**
+     * Splits one CSV record, honouring double-quoted fields and doubled quotes inside them.
+     */
+    static List<String> splitCsv(String text) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < text.length() && text.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
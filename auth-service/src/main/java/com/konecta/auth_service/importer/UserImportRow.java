@@ -0,0 +1,9 @@
+package com.konecta.auth_service.importer;
+
+import com.konecta.auth_service.model.Role;
+
+/**
+ * One user read from an import file; {@code line} is the 1-based source line used in reject reports.
+ */
+public record UserImportRow(long line, String username, String email, String password, Role role) {
+}
@@ -0,0 +1,90 @@
+package com.konecta.auth_service.importer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Runs a one-off bulk import when the service is started with {@code --import-users=<file>}, then exits.
+ * The format follows the file extension ({@code .csv}, otherwise NDJSON) unless {@code --import-format}
+ * is given; rejected rows go to {@code --import-rejects} (default {@code <file>.rejects.csv}).
+ * Import runs start without the web server, see {@link #isImportRun(String[])}.
+ */
+@Component
+public class UserImportRunner implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(UserImportRunner.class);
+
+    private final UserImportService importService;
+    private final ObjectMapper objectMapper;
+    private final ConfigurableApplicationContext context;
+
+    public UserImportRunner(UserImportService importService, ObjectMapper objectMapper,
+                            ConfigurableApplicationContext context) {
+        this.importService = importService;
+        this.objectMapper = objectMapper;
+        this.context = context;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        String file = option(args, "import-users");
+        if (file == null) {
+            return;
+        }
+
+        Path input = Path.of(file);
+        String format = option(args, "import-format");
+        String rejectsFile = option(args, "import-rejects");
+        Path rejects = rejectsFile != null ? Path.of(rejectsFile) : Path.of(file + ".rejects.csv");
+
+        int exitCode;
+        try (BufferedReader in = Files.newBufferedReader(input, StandardCharsets.UTF_8);
+             Writer out = Files.newBufferedWriter(rejects, StandardCharsets.UTF_8)) {
+            UserImportReader.Format parsedFormat = format != null
+                    ? UserImportReader.Format.valueOf(format.toUpperCase())
+                    : UserImportReader.Format.of(input.getFileName().toString());
+            UserImportService.Report report = importService.importUsers(
+                    new UserImportReader(in, parsedFormat, objectMapper), out);
+            if (report.rejected() > 0) {
+                log.warn("{} rows were rejected, see {}", report.rejected(), rejects);
+            }
+            exitCode = 0;
+        } catch (Exception e) {
+            log.error("User import from {} failed", input, e);
+            exitCode = 1;
+        }
+        int code = exitCode;
+        System.exit(SpringApplication.exit(context, () -> code));
+    }
+
+    /**
+     * Whether the command line asks for an import, checked before the context starts so the
+     * application can skip the web server.
+     */
+    public static boolean isImportRun(String[] args) {
+        for (String arg : args) {
+            if (arg.equals("--import-users") || arg.startsWith("--import-users=")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String option(ApplicationArguments args, String name) {
+        List<String> values = args.getOptionValues(name);
+        return values == null || values.isEmpty() ? null : values.get(0);
+    }
+}
@@ -0,0 +1,212 @@
+package com.konecta.auth_service.importer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.konecta.auth_service.repository.UserRepository;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Bulk-loads users in chunks: each chunk is checked for duplicates with two set-wise queries,
+ * its passwords are hashed in parallel across all cores, and the accepted rows are written with
+ * a single JDBC batch insert. Rows that cannot be imported are written to a reject report.
+ */
+@Service
+public class UserImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(UserImportService.class);
+
+    // id is left to the column's sequence default so the whole chunk goes out as one batch
+    private static final String INSERT_SQL = "INSERT INTO users (username, email, password, role) VALUES (?, ?, ?, ?)";
+
+    public record Report(long read, long imported, long rejected, long elapsedMillis) {
+    }
+
+    private final UserRepository userRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PasswordEncoder hasher;
+    private final int batchSize;
+    private final int parallelism;
+
+    public UserImportService(UserRepository userRepository,
+                             JdbcTemplate jdbcTemplate,
+                             TransactionTemplate transactionTemplate,
+                             @Value("${auth.password.bcrypt-strength:10}") int strength,
+                             @Value("${auth.import.batch-size:1000}") int batchSize,
+                             @Value("${auth.import.hashing-threads:0}") int threads) {
+        this.userRepository = userRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        // The import is an offline job, so it hashes directly instead of competing with logins for the bounded pool
+        this.hasher = new BCryptPasswordEncoder(strength);
+        this.batchSize = batchSize;
+        this.parallelism = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+    }
+
+    public Report importUsers(UserImportReader reader, Writer rejects) throws IOException {
+        long started = System.currentTimeMillis();
+        Counters counters = new Counters();
+        rejects.write("line,username,reason\n");
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            List<UserImportRow> chunk = new ArrayList<>(batchSize);
+            UserImportReader.Result result;
+            while ((result = reader.next()) != null) {
+                counters.read++;
+                if (result.row() == null) {
+                    reject(rejects, counters, result.line(), null, result.error());
+                    continue;
+                }
+                chunk.add(result.row());
+                if (chunk.size() == batchSize) {
+                    importChunk(chunk, pool, rejects, counters);
+                    chunk.clear();
+                    logProgress(counters, started);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                importChunk(chunk, pool, rejects, counters);
+            }
+        } finally {
+            pool.shutdown();
+            rejects.flush();
+        }
+
+        Report report = new Report(counters.read, counters.imported, counters.rejected,
+                System.currentTimeMillis() - started);
+        log.info("User import finished: read={} imported={} rejected={} in {} ms",
+                report.read(), report.imported(), report.rejected(), report.elapsedMillis());
+        return report;
+    }
+
+    private void importChunk(List<UserImportRow> chunk, ForkJoinPool pool, Writer rejects, Counters counters)
+            throws IOException {
+        List<UserImportRow> accepted = removeDuplicates(chunk, rejects, counters);
+        if (accepted.isEmpty()) {
+            return;
+        }
+
+        List<String> hashes = hashAll(accepted, pool);
+        try {
+            transactionTemplate.executeWithoutResult(status -> insert(accepted, hashes));
+            counters.imported += accepted.size();
+        } catch (DataIntegrityViolationException e) {
+            // Someone registered one of these users since the duplicate check: retry row by row to isolate it
+            for (int i = 0; i < accepted.size(); i++) {
+                UserImportRow row = accepted.get(i);
+                try {
+                    insert(List.of(row), List.of(hashes.get(i)));
+                    counters.imported++;
+                } catch (DataIntegrityViolationException rowError) {
+                    reject(rejects, counters, row.line(), row.username(), "username or email already exists");
+                }
+            }
+        }
+    }
+
+    /**
+     * Drops rows whose username or email already exists in the table or earlier in the same chunk.
+     * Earlier chunks are already committed, so the database check also covers duplicates across chunks.
+     */
+    private List<UserImportRow> removeDuplicates(List<UserImportRow> chunk, Writer rejects, Counters counters)
+            throws IOException {
+        Set<String> usernames = new HashSet<>();
+        Set<String> emails = new HashSet<>();
+        for (UserImportRow row : chunk) {
+            usernames.add(row.username());
+            if (row.email() != null) {
+                emails.add(row.email());
+            }
+        }
+        Set<String> takenUsernames = new HashSet<>(userRepository.findExistingUsernames(usernames));
+        Set<String> takenEmails = emails.isEmpty() ? new HashSet<>() : new HashSet<>(userRepository.findExistingEmails(emails));
+
+        List<UserImportRow> accepted = new ArrayList<>(chunk.size());
+        for (UserImportRow row : chunk) {
+            if (!takenUsernames.add(row.username())) {
+                reject(rejects, counters, row.line(), row.username(), "username already exists");
+            } else if (row.email() != null && !takenEmails.add(row.email())) {
+                reject(rejects, counters, row.line(), row.username(), "email already exists");
+            } else {
+                accepted.add(row);
+            }
+        }
+        return accepted;
+    }
+
+    private List<String> hashAll(List<UserImportRow> rows, ForkJoinPool pool) {
+        try {
+            return pool.submit(() -> rows.parallelStream().map(row -> hasher.encode(row.password())).toList()).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing passwords", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    private void insert(List<UserImportRow> rows, List<String> hashes) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                UserImportRow row = rows.get(i);
+                ps.setString(1, row.username());
+                ps.setString(2, row.email());
+                ps.setString(3, hashes.get(i));
+                ps.setString(4, row.role().name());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return rows.size();
+            }
+        });
+    }
+
+    private void reject(Writer rejects, Counters counters, long line, String username, String reason) throws IOException {
+        counters.rejected++;
+        rejects.write(line + "," + csv(username) + "," + csv(reason) + "\n");
+    }
+
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private void logProgress(Counters counters, long started) {
+        long elapsed = Math.max(1, System.currentTimeMillis() - started);
+        log.info("User import progress: read={} imported={} rejected={} ({} rows/s)",
+                counters.read, counters.imported, counters.rejected, counters.read * 1000 / elapsed);
+    }
+
+    private static final class Counters {
+        long read;
+        long imported;
+        long rejected;
+    }
+}
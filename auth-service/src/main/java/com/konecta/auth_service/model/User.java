@@ -4,6 +4,7 @@ import jakarta.persistence.*;
 import lombok.*;
 
 @Entity
+@EntityListeners(UserCacheEvictionListener.class)
 @Table(
         name = "users",
         uniqueConstraints = {
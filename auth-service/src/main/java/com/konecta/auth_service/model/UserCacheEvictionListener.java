@@ -0,0 +1,28 @@
+package com.konecta.auth_service.model;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.stereotype.Component;
+
+import com.konecta.auth_service.service.UserDetailsCache;
+
+/**
+ * Keeps {@link UserDetailsCache} coherent with the users table: any write to a user drops its entry.
+ */
+@Component
+public class UserCacheEvictionListener {
+
+    private final UserDetailsCache userDetailsCache;
+
+    public UserCacheEvictionListener(UserDetailsCache userDetailsCache) {
+        this.userDetailsCache = userDetailsCache;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void evict(User user) {
+        userDetailsCache.evict(user);
+    }
+}
@@ -0,0 +1,8 @@
+package com.konecta.auth_service.security;
+
+public class PasswordHashingOverloadedException extends RuntimeException {
+
+    public PasswordHashingOverloadedException(String message) {
+        super(message);
+    }
+}
@@ -8,23 +8,42 @@ import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
 import com.konecta.auth_service.repository.UserRepository;
-import com.konecta.auth_service.model.User;
+import com.konecta.auth_service.service.UserDetailsCache.CachedUser;
 
 @Service
 @RequiredArgsConstructor
 public class CustomUserDetailsService implements UserDetailsService {
 
     private final UserRepository userRepository;
+    private final UserDetailsCache userDetailsCache;
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
+        CachedUser user = userDetailsCache.getByUsername(username);
+        if (user == null) {
+            user = userRepository.findByUsername(username)
+                    .map(userDetailsCache::put)
+                    .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
+        }
 
         return org.springframework.security.core.userdetails.User
-                .withUsername(user.getUsername())
-                .password(user.getPassword())
-                .roles(user.getRole().name())
+                .withUsername(user.username())
+                .password(user.password())
+                .roles(user.role().name())
                 .build();
     }
-}
\ No newline at end of file
+
+    /**
+     * Resolves a user by email with at most one query, so login can verify the password against the
+     * row it has already loaded.
+     */
+    public CachedUser loadUserByEmail(String email) throws UsernameNotFoundException {
+        CachedUser user = userDetailsCache.getByEmail(email);
+        if (user != null) {
+            return user;
+        }
+        return userRepository.findByEmail(email)
+                .map(userDetailsCache::put)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found: " + email));
+    }
+}
@@ -0,0 +1,97 @@
+package com.konecta.auth_service.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.konecta.auth_service.model.RevokedToken;
+import com.konecta.auth_service.repository.RevokedTokenRepository;
+import com.konecta.auth_service.security.RevocationBloomFilter;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Exact store of revoked token ids plus the Bloom-filter snapshot that the gateway and order-service
+ * poll, so they only call back here when the filter reports a possible match.
+ */
+@Service
+public class TokenRevocationService {
+
+    public record Snapshot(long version, byte[] bytes) {
+    }
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final double falsePositiveRate;
+    private final int minCapacity;
+    private final long rebuildIntervalMillis;
+
+    private volatile Snapshot snapshot;
+    private volatile long builtAt;
+
+    public TokenRevocationService(RevokedTokenRepository revokedTokenRepository,
+                                  @Value("${auth.revocation.false-positive-rate:0.001}") double falsePositiveRate,
+                                  @Value("${auth.revocation.min-capacity:1000}") int minCapacity,
+                                  @Value("${auth.revocation.rebuild-interval:5s}") Duration rebuildInterval) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.falsePositiveRate = falsePositiveRate;
+        this.minCapacity = minCapacity;
+        this.rebuildIntervalMillis = rebuildInterval.toMillis();
+    }
+
+    /**
+     * Records the token id as revoked until the token's own expiry and publishes a new snapshot.
+     */
+    public void revoke(String jti, String username, Instant expiresAt) {
+        if (jti == null) {
+            throw new IllegalArgumentException("Token has no id and cannot be revoked");
+        }
+        Instant now = Instant.now();
+        if (expiresAt != null && !expiresAt.isAfter(now)) {
+            return;
+        }
+        if (!revokedTokenRepository.existsById(jti)) {
+            revokedTokenRepository.save(RevokedToken.builder()
+                    .jti(jti)
+                    .username(username)
+                    .expiresAt(expiresAt != null ? expiresAt : now.plus(Duration.ofDays(1)))
+                    .revokedAt(now)
+                    .build());
+        }
+        rebuild();
+    }
+
+    public boolean isRevoked(String jti) {
+        return revokedTokenRepository.existsById(jti);
+    }
+
+    /**
+     * Returns the current snapshot, rebuilding it from the table when it is older than the rebuild
+     * interval so revocations made on other instances and expired entries are picked up.
+     */
+    public Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current == null || System.currentTimeMillis() - builtAt >= rebuildIntervalMillis) {
+            current = rebuild();
+        }
+        return current;
+    }
+
+    private synchronized Snapshot rebuild() {
+        Instant now = Instant.now();
+        revokedTokenRepository.deleteExpired(now);
+        List<String> live = revokedTokenRepository.findLiveIds(now);
+
+        RevocationBloomFilter filter = RevocationBloomFilter.create(Math.max(minCapacity, live.size()), falsePositiveRate);
+        live.forEach(filter::add);
+        long version = filter.fingerprint();
+
+        Snapshot current = snapshot;
+        if (current == null || current.version() != version) {
+            current = new Snapshot(version, filter.toBytes(version));
+            snapshot = current;
+        }
+        builtAt = System.currentTimeMillis();
+        return current;
+    }
+}
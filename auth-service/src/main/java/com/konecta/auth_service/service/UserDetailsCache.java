@@ -0,0 +1,102 @@
+package com.konecta.auth_service.service;
+
+import com.konecta.auth_service.model.Role;
+import com.konecta.auth_service.model.User;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded LRU cache of user rows used for authentication, looked up by username or email.
+ * Entries expire after a fixed TTL and are evicted whenever the underlying user changes.
+ */
+@Component
+public class UserDetailsCache {
+
+    public record CachedUser(Long id, String username, String email, String password, Role role) {
+
+        static CachedUser of(User user) {
+            return new CachedUser(user.getId(), user.getUsername(), user.getEmail(), user.getPassword(), user.getRole());
+        }
+    }
+
+    private record Entry(CachedUser user, long expiresAt) {
+    }
+
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final Map<String, String> usernameByEmail = new HashMap<>();
+    private final LinkedHashMap<String, Entry> byUsername;
+
+    public UserDetailsCache(@Value("${auth.user-cache.max-entries:10000}") int maxEntries,
+                            @Value("${auth.user-cache.ttl:5m}") Duration ttl) {
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttl.toMillis();
+        this.byUsername = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > UserDetailsCache.this.maxEntries) {
+                    unindex(eldest.getValue().user());
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public synchronized CachedUser getByUsername(String username) {
+        Entry entry = byUsername.get(username);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt() <= System.currentTimeMillis()) {
+            evictUsername(username);
+            return null;
+        }
+        return entry.user();
+    }
+
+    public synchronized CachedUser getByEmail(String email) {
+        String username = usernameByEmail.get(email);
+        return username == null ? null : getByUsername(username);
+    }
+
+    public synchronized CachedUser put(User user) {
+        CachedUser cached = CachedUser.of(user);
+        evictUsername(cached.username());
+        byUsername.put(cached.username(), new Entry(cached, System.currentTimeMillis() + ttlMillis));
+        if (cached.email() != null) {
+            usernameByEmail.put(cached.email(), cached.username());
+        }
+        return cached;
+    }
+
+    public synchronized void evict(User user) {
+        if (user.getUsername() != null) {
+            evictUsername(user.getUsername());
+        }
+        if (user.getEmail() != null) {
+            String username = usernameByEmail.get(user.getEmail());
+            if (username != null) {
+                evictUsername(username);
+            }
+        }
+    }
+
+    private void evictUsername(String username) {
+        Entry removed = byUsername.remove(username);
+        if (removed != null) {
+            unindex(removed.user());
+        }
+    }
+
+    private void unindex(CachedUser user) {
+        if (user.email() != null) {
+            usernameByEmail.remove(user.email(), user.username());
+        }
+    }
+}
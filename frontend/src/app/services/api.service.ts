@@ -12,6 +12,17 @@ export interface Product {
   imageUrl?: string;
 }
 
+export interface ProductPage {
+  items: Product[];
+  nextCursor: string | null;
+}
+
+export interface ProductSearchResult {
+  total: number;
+  hits: (Product & { score: number })[];
+  categories: { [category: string]: number };
+}
+
 export interface User {
   id: number;
   username: string;
@@ -45,6 +56,27 @@ export interface OrderItem {
   product?: Product;
 }
 
+export interface OrderSummary {
+  orderId: number;
+  userId: number;
+  orderDate: string;
+  status: string;
+  totalAmount: number;
+  items: { productId: number; quantity: number; price: number }[];
+}
+
+export interface OrderPage {
+  items: OrderSummary[];
+  nextCursor: string | null;
+}
+
+export interface OrderDetails {
+  order: Order;
+  products: { [productId: string]: Product };
+  missingProducts: number[];
+  partial: boolean;
+}
+
 @Injectable({
   providedIn: 'root'
 })
@@ -93,12 +125,32 @@ export class ApiService {
     return this.http.get<Product[]>(`${this.baseUrl}/products`);
   }
 
+  // Keyset-paginated listing; pass the previous page's nextCursor to continue
+  getProductPage(options: { category?: string; sort?: 'id' | 'price'; order?: 'asc' | 'desc';
+                            size?: number; cursor?: string; fields?: 'full' | 'summary' } = {}): Observable<ProductPage> {
+    const params: { [key: string]: string } = {};
+    Object.entries(options).forEach(([key, value]) => {
+      if (value !== undefined && value !== null) {
+        params[key] = String(value);
+      }
+    });
+    return this.http.get<ProductPage>(`${this.baseUrl}/products/page`, { params });
+  }
+
   getProduct(id: number): Observable<Product> {
     return this.http.get<Product>(`${this.baseUrl}/products/${id}`);
   }
 
-  searchProducts(query: string): Observable<Product[]> {
-    return this.http.get<Product[]>(`${this.baseUrl}/products/search?q=${query}`);
+  searchProducts(query: string, category?: string): Observable<ProductSearchResult> {
+    const params: { [key: string]: string } = { q: query };
+    if (category) {
+      params['category'] = category;
+    }
+    return this.http.get<ProductSearchResult>(`${this.baseUrl}/products/search`, { params });
+  }
+
+  suggestProducts(prefix: string): Observable<string[]> {
+    return this.http.get<string[]>(`${this.baseUrl}/products/suggest`, { params: { q: prefix } });
   }
 
   getProductsByCategory(category: string): Observable<Product[]> {
@@ -165,12 +217,34 @@ export class ApiService {
     });
   }
 
+  // Keyset-paginated order history; pass nextCursor back as cursor for the next page
+  getUserOrders(userId: number, options: { status?: string; from?: string; to?: string;
+                                           size?: number; cursor?: string } = {}): Observable<OrderPage> {
+    const params: { [key: string]: string } = {};
+    Object.entries(options).forEach(([key, value]) => {
+      if (value !== undefined && value !== null) {
+        params[key] = String(value);
+      }
+    });
+    return this.http.get<OrderPage>(`${this.baseUrl}/orders/users/${userId}`, {
+      headers: this.getAuthHeaders(),
+      params
+    });
+  }
+
   getOrder(id: number): Observable<Order> {
     return this.http.get<Order>(`${this.baseUrl}/orders/${id}`, { 
       headers: this.getAuthHeaders() 
     });
   }
 
+  // Order plus all of its products in one gateway call
+  getOrderDetails(id: number): Observable<OrderDetails> {
+    return this.http.get<OrderDetails>(`${this.baseUrl}/composite/orders/${id}`, { 
+      headers: this.getAuthHeaders() 
+    });
+  }
+
   createOrder(orderData: any): Observable<Order> {
     return this.http.post<Order>(`${this.baseUrl}/orders`, 
       orderData, 
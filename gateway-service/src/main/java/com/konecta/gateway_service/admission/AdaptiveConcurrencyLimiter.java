@@ -0,0 +1,117 @@
+package com.konecta.gateway_service.admission;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * AIMD concurrency limit driven by observed latency. Samples are grouped into windows of at least
+ * one baseline RTT; at the end of each window the limit grows by one if the average latency stayed
+ * within {@code tolerance} times the long-term baseline, and shrinks multiplicatively, at most once
+ * per window, when it did not or the backend failed. The baseline is a slow moving average rather
+ * than the best sample seen, so a route mixing fast and slow calls is judged against its usual mix.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private static final int MIN_WINDOW_SAMPLES = 10;
+    private static final double BASELINE_SMOOTHING = 0.05;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double backoffRatio;
+    private final LongSupplier nanoClock;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile double limit;
+    private double baselineRttNanos;
+    private long windowStart;
+    private long windowRttSum;
+    private int windowSamples;
+    private int windowMaxInFlight;
+    private int windowFailures;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double tolerance, double backoffRatio) {
+        this(initialLimit, minLimit, maxLimit, tolerance, backoffRatio, System::nanoTime);
+    }
+
+    AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double tolerance, double backoffRatio,
+                               LongSupplier nanoClock) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.backoffRatio = backoffRatio;
+        this.nanoClock = nanoClock;
+        this.limit = initialLimit;
+        this.windowStart = nanoClock.getAsLong();
+    }
+
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Releases a slot taken by {@link #tryAcquire()}. Pass a negative {@code rttNanos} for calls that
+     * should not count as a latency sample, such as cancelled calls or client errors.
+     */
+    public void release(long rttNanos, boolean failed) {
+        int inFlightAtCompletion = inFlight.getAndDecrement();
+        if (rttNanos < 0) {
+            return;
+        }
+        synchronized (this) {
+            if (failed) {
+                windowFailures++;
+            } else {
+                windowRttSum += rttNanos;
+                windowSamples++;
+            }
+            windowMaxInFlight = Math.max(windowMaxInFlight, inFlightAtCompletion);
+
+            long now = nanoClock.getAsLong();
+            if (windowSamples + windowFailures < MIN_WINDOW_SAMPLES || now - windowStart < baselineRttNanos) {
+                return;
+            }
+
+            double next = limit;
+            if (windowFailures > 0) {
+                next = limit * backoffRatio;
+            } else {
+                double averageRtt = (double) windowRttSum / windowSamples;
+                if (baselineRttNanos == 0) {
+                    baselineRttNanos = averageRtt;
+                }
+                if (averageRtt > baselineRttNanos * tolerance) {
+                    next = limit * backoffRatio;
+                } else if (windowMaxInFlight * 2 >= limit) {
+                    // Only grow while the current limit is actually being used.
+                    next = limit + 1;
+                }
+                // Let the baseline follow a backend that became permanently slower or faster.
+                baselineRttNanos += (averageRtt - baselineRttNanos) * BASELINE_SMOOTHING;
+            }
+            limit = Math.max(minLimit, Math.min(maxLimit, next));
+
+            windowStart = now;
+            windowRttSum = 0;
+            windowSamples = 0;
+            windowMaxInFlight = 0;
+            windowFailures = 0;
+        }
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
@@ -0,0 +1,103 @@
+package com.konecta.gateway_service.admission;
+
+import com.konecta.gateway_service.security.JwtAuthGatewayFilterFactory;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+
+import java.net.InetSocketAddress;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-route token-bucket rate limiting keyed by the subject JwtAuth verified, or by client IP for
+ * anonymous calls, so on authenticated routes it belongs after JwtAuth. Buckets live in this gateway
+ * instance only; no external store is involved.
+ */
+@Component("LocalRateLimit")
+public class LocalRateLimitGatewayFilterFactory extends AbstractGatewayFilterFactory<LocalRateLimitGatewayFilterFactory.Config> {
+
+    private final MeterRegistry meterRegistry;
+
+    public LocalRateLimitGatewayFilterFactory(MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        StripedTokenBuckets buckets = new StripedTokenBuckets(config.getReplenishRate(), config.getBurstCapacity(), config.getMaxKeys());
+        Counter rejected = Counter.builder("gateway.ratelimit.rejected")
+                .tag("route", config.getRouteId() == null ? "default" : config.getRouteId())
+                .register(meterRegistry);
+
+        return (exchange, chain) -> {
+            long waitNanos = buckets.tryAcquire(resolveKey(exchange), System.nanoTime());
+            if (waitNanos == 0) {
+                return chain.filter(exchange);
+            }
+            rejected.increment();
+            exchange.getResponse().setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+            exchange.getResponse().getHeaders().set(HttpHeaders.RETRY_AFTER,
+                    String.valueOf(Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L))));
+            return exchange.getResponse().setComplete();
+        };
+    }
+
+    private String resolveKey(ServerWebExchange exchange) {
+        Claims claims = exchange.getAttribute(JwtAuthGatewayFilterFactory.CLAIMS_ATTRIBUTE);
+        if (claims != null) {
+            return "user:" + claims.getSubject();
+        }
+        InetSocketAddress remote = exchange.getRequest().getRemoteAddress();
+        return "ip:" + (remote == null || remote.getAddress() == null ? "unknown" : remote.getAddress().getHostAddress());
+    }
+
+    public static class Config implements HasRouteId {
+
+        private double replenishRate = 10;
+        private int burstCapacity = 20;
+        private int maxKeys = 100_000;
+        private String routeId;
+
+        public double getReplenishRate() {
+            return replenishRate;
+        }
+
+        public void setReplenishRate(double replenishRate) {
+            this.replenishRate = replenishRate;
+        }
+
+        public int getBurstCapacity() {
+            return burstCapacity;
+        }
+
+        public void setBurstCapacity(int burstCapacity) {
+            this.burstCapacity = burstCapacity;
+        }
+
+        public int getMaxKeys() {
+            return maxKeys;
+        }
+
+        public void setMaxKeys(int maxKeys) {
+            this.maxKeys = maxKeys;
+        }
+
+        @Override
+        public String getRouteId() {
+            return routeId;
+        }
+
+        @Override
+        public void setRouteId(String routeId) {
+            this.routeId = routeId;
+        }
+    }
+}
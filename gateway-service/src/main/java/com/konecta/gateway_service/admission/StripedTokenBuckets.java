@@ -0,0 +1,88 @@
+package com.konecta.gateway_service.admission;
+
+import java.util.HashMap;
+import java.util.Iterator;
+
+/**
+ * In-memory token buckets keyed by caller. Keys are spread over a fixed set of lock stripes so
+ * unrelated callers rarely contend, and each stripe caps how many idle buckets it keeps.
+ */
+public class StripedTokenBuckets {
+
+    private static final int STRIPES = 64;
+
+    private final Stripe[] stripes = new Stripe[STRIPES];
+    private final double tokensPerNano;
+    private final double capacity;
+    private final int maxKeysPerStripe;
+
+    public StripedTokenBuckets(double tokensPerSecond, double capacity, int maxKeys) {
+        this.tokensPerNano = tokensPerSecond / 1_000_000_000d;
+        this.capacity = capacity;
+        this.maxKeysPerStripe = Math.max(16, maxKeys / STRIPES);
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    /**
+     * Takes one token for {@code key}.
+     *
+     * @return 0 if the call is admitted, otherwise the nanoseconds until a token becomes available
+     */
+    public long tryAcquire(String key, long nowNanos) {
+        Stripe stripe = stripes[(key.hashCode() ^ (key.hashCode() >>> 16)) & (STRIPES - 1)];
+        synchronized (stripe) {
+            Bucket bucket = stripe.buckets.get(key);
+            if (bucket == null) {
+                if (stripe.buckets.size() >= maxKeysPerStripe) {
+                    stripe.evictIdle(nowNanos);
+                }
+                bucket = new Bucket(capacity, nowNanos);
+                stripe.buckets.put(key, bucket);
+            } else {
+                bucket.refill(nowNanos);
+            }
+            if (bucket.tokens >= 1d) {
+                bucket.tokens -= 1d;
+                return 0;
+            }
+            return (long) Math.ceil((1d - bucket.tokens) / tokensPerNano);
+        }
+    }
+
+    private final class Stripe {
+        private final HashMap<String, Bucket> buckets = new HashMap<>();
+
+        private void evictIdle(long nowNanos) {
+            // A bucket that has refilled completely carries no state worth keeping.
+            buckets.values().removeIf(b -> {
+                b.refill(nowNanos);
+                return b.tokens >= capacity;
+            });
+            Iterator<Bucket> it = buckets.values().iterator();
+            while (buckets.size() >= maxKeysPerStripe && it.hasNext()) {
+                it.next();
+                it.remove();
+            }
+        }
+    }
+
+    private final class Bucket {
+        private double tokens;
+        private long lastRefill;
+
+        private Bucket(double tokens, long now) {
+            this.tokens = tokens;
+            this.lastRefill = now;
+        }
+
+        private void refill(long now) {
+            long elapsed = now - lastRefill;
+            if (elapsed > 0) {
+                tokens = Math.min(capacity, tokens + elapsed * tokensPerNano);
+                lastRefill = now;
+            }
+        }
+    }
+}
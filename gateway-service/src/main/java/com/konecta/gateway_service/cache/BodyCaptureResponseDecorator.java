@@ -0,0 +1,68 @@
+package com.konecta.gateway_service.cache;
+
+import org.reactivestreams.Publisher;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Buffers a JSON upstream body so it can be inspected (and replaced) before it is written to the client.
+ * Streaming and non-JSON responses pass through untouched.
+ */
+public class BodyCaptureResponseDecorator extends ServerHttpResponseDecorator {
+
+    /**
+     * Receives the buffered body and returns the bytes that should actually be written.
+     */
+    @FunctionalInterface
+    public interface BodyHandler {
+        byte[] onBody(ServerHttpResponse response, byte[] body);
+    }
+
+    private final BodyHandler handler;
+
+    public BodyCaptureResponseDecorator(ServerHttpResponse delegate, BodyHandler handler) {
+        super(delegate);
+        this.handler = handler;
+    }
+
+    @Override
+    public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+        if (!isCapturable()) {
+            return super.writeWith(body);
+        }
+        return DataBufferUtils.join(Flux.from(body))
+                .map(buffer -> {
+                    byte[] bytes = new byte[buffer.readableByteCount()];
+                    buffer.read(bytes);
+                    DataBufferUtils.release(buffer);
+                    return bytes;
+                })
+                .defaultIfEmpty(new byte[0])
+                .flatMap(bytes -> {
+                    byte[] out = handler.onBody(getDelegate(), bytes);
+                    getDelegate().getHeaders().setContentLength(out.length);
+                    if (out.length == 0) {
+                        return getDelegate().setComplete();
+                    }
+                    return getDelegate().writeWith(Mono.just(bufferFactory().wrap(out)));
+                });
+    }
+
+    @Override
+    public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+        if (!isCapturable()) {
+            return super.writeAndFlushWith(body);
+        }
+        return writeWith(Flux.from(body).flatMapSequential(p -> p));
+    }
+
+    private boolean isCapturable() {
+        MediaType contentType = getDelegate().getHeaders().getContentType();
+        return contentType != null && MediaType.APPLICATION_JSON.isCompatibleWith(contentType);
+    }
+}
@@ -0,0 +1,33 @@
+package com.konecta.gateway_service.cache;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import reactor.core.publisher.Mono;
+
+/**
+ * A fully buffered upstream response that can be replayed to other clients.
+ */
+public record CachedResponse(HttpStatusCode status, HttpHeaders headers, byte[] body, String etag, long storedAt) {
+
+    public static CachedResponse capture(ServerHttpResponse response, byte[] body, String etag, long now) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.addAll(response.getHeaders());
+        headers.remove(HttpHeaders.TRANSFER_ENCODING);
+        headers.remove(HttpHeaders.CONNECTION);
+        headers.remove(HttpHeaders.CONTENT_LENGTH);
+        HttpStatusCode status = response.getStatusCode() == null ? HttpStatusCode.valueOf(200) : response.getStatusCode();
+        return new CachedResponse(status, HttpHeaders.readOnlyHttpHeaders(headers), body, etag, now);
+    }
+
+    public Mono<Void> writeTo(ServerHttpResponse response) {
+        response.setStatusCode(status);
+        response.getHeaders().putAll(headers);
+        response.getHeaders().setContentLength(body.length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+    }
+
+    public int weight() {
+        return body.length + 256;
+    }
+}
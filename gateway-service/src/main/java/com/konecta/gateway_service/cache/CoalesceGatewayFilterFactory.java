@@ -0,0 +1,120 @@
+package com.konecta.gateway_service.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Single-flight for idempotent GETs: while one request for a given route, path, query and set of
+ * varying headers is in flight upstream, identical requests wait for it and receive a copy of its
+ * response instead of issuing their own backend call.
+ */
+@Component("Coalesce")
+public class CoalesceGatewayFilterFactory extends AbstractGatewayFilterFactory<CoalesceGatewayFilterFactory.Config> {
+
+    private final MeterRegistry meterRegistry;
+
+    public CoalesceGatewayFilterFactory(MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        String routeId = config.getRouteId() == null ? "default" : config.getRouteId();
+        Map<String, Sinks.One<CachedResponse>> inFlight = new ConcurrentHashMap<>();
+        Counter leaders = Counter.builder("gateway.coalesce.upstream").tag("route", routeId).register(meterRegistry);
+        Counter coalesced = Counter.builder("gateway.coalesce.coalesced").tag("route", routeId).register(meterRegistry);
+        // Waiters that still had to go upstream because the leader's response could not be shared
+        Counter fallbacks = Counter.builder("gateway.coalesce.fallback").tag("route", routeId).register(meterRegistry);
+
+        return new OrderedGatewayFilter((exchange, chain) -> {
+            ServerHttpRequest request = exchange.getRequest();
+            if (!HttpMethod.GET.equals(request.getMethod())) {
+                return chain.filter(exchange);
+            }
+
+            String key = key(routeId, request, config.getHeaders());
+            Sinks.One<CachedResponse> sink = Sinks.one();
+            Sinks.One<CachedResponse> leader = inFlight.putIfAbsent(key, sink);
+            if (leader != null) {
+                // An empty result means the leader's response was not shareable; go upstream ourselves.
+                return leader.asMono()
+                        .map(Optional::of)
+                        .defaultIfEmpty(Optional.empty())
+                        .flatMap(shared -> {
+                            if (shared.isPresent()) {
+                                coalesced.increment();
+                                return shared.get().writeTo(exchange.getResponse());
+                            }
+                            fallbacks.increment();
+                            return chain.filter(exchange);
+                        });
+            }
+
+            leaders.increment();
+            BodyCaptureResponseDecorator capturing = new BodyCaptureResponseDecorator(exchange.getResponse(), (response, body) -> {
+                inFlight.remove(key, sink);
+                sink.tryEmitValue(CachedResponse.capture(response, body, null, System.currentTimeMillis()));
+                return body;
+            });
+            return chain.filter(exchange.mutate().response(capturing).build())
+                    .doFinally(signal -> {
+                        inFlight.remove(key, sink);
+                        sink.tryEmitEmpty();
+                    });
+        }, NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1);
+    }
+
+    private static String key(String routeId, ServerHttpRequest request, List<String> varyHeaders) {
+        StringBuilder key = new StringBuilder(routeId).append(' ').append(request.getURI().getRawPath());
+        if (request.getURI().getRawQuery() != null) {
+            key.append('?').append(request.getURI().getRawQuery());
+        }
+        HttpHeaders headers = request.getHeaders();
+        for (String name : varyHeaders) {
+            key.append('\n').append(name).append(':').append(headers.getOrEmpty(name));
+        }
+        return key.toString();
+    }
+
+    public static class Config implements HasRouteId {
+
+        private List<String> headers = List.of(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING,
+                HttpHeaders.ACCEPT_LANGUAGE, HttpHeaders.AUTHORIZATION);
+        private String routeId;
+
+        public List<String> getHeaders() {
+            return headers;
+        }
+
+        public void setHeaders(List<String> headers) {
+            this.headers = headers;
+        }
+
+        @Override
+        public String getRouteId() {
+            return routeId;
+        }
+
+        @Override
+        public void setRouteId(String routeId) {
+            this.routeId = routeId;
+        }
+    }
+}
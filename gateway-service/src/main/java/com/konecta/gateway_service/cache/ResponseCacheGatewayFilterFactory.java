@@ -0,0 +1,189 @@
+package com.konecta.gateway_service.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Edge cache for idempotent JSON reads. Successful GET responses are kept in an LRU store per route,
+ * tagged with a strong ETag so clients revalidating with {@code If-None-Match} get a 304.
+ * Any unsafe request through the same route that succeeds clears that route's cache, and reads
+ * that were already in flight at that point are not stored.
+ */
+@Component("ResponseCache")
+public class ResponseCacheGatewayFilterFactory extends AbstractGatewayFilterFactory<ResponseCacheGatewayFilterFactory.Config> {
+
+    public static final String CACHE_STATUS_HEADER = "X-Cache";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, ResponseCacheStore> stores = new ConcurrentHashMap<>();
+
+    public ResponseCacheGatewayFilterFactory(MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        String routeId = config.getRouteId() == null ? "default" : config.getRouteId();
+        ResponseCacheStore store = new ResponseCacheStore(config.getMaxSize().toBytes(), config.getTtl().toMillis());
+        if (stores.put(routeId, store) == null) {
+            registerMeters(routeId);
+        }
+
+        // Must wrap the response before NettyWriteResponseFilter picks it up, as ModifyResponseBody does.
+        return new OrderedGatewayFilter((exchange, chain) -> {
+            ServerHttpRequest request = exchange.getRequest();
+            HttpMethod method = request.getMethod();
+            if (HttpMethod.POST.equals(method) || HttpMethod.PUT.equals(method)
+                    || HttpMethod.PATCH.equals(method) || HttpMethod.DELETE.equals(method)) {
+                return chain.filter(exchange).doFinally(signal -> {
+                    HttpStatusCode status = exchange.getResponse().getStatusCode();
+                    if (status != null && status.is2xxSuccessful()) {
+                        store.clear();
+                    }
+                });
+            }
+            if (!HttpMethod.GET.equals(method)) {
+                return chain.filter(exchange);
+            }
+
+            String key = request.getURI().getRawPath() + '?' + (request.getURI().getRawQuery() == null ? "" : request.getURI().getRawQuery());
+            long now = System.currentTimeMillis();
+            CachedResponse cached = store.get(key, now);
+            if (cached != null) {
+                return serve(exchange, cached);
+            }
+
+            long generation = store.generation();
+            BodyCaptureResponseDecorator capturing = new BodyCaptureResponseDecorator(exchange.getResponse(), (response, body) -> {
+                response.getHeaders().set(CACHE_STATUS_HEADER, "MISS");
+                if (!isCacheable(response)) {
+                    return body;
+                }
+                String etag = etag(body);
+                response.getHeaders().setETag(etag);
+                store.put(key, CachedResponse.capture(response, body, etag, System.currentTimeMillis()), generation);
+                if (matches(request, etag)) {
+                    response.setStatusCode(HttpStatus.NOT_MODIFIED);
+                    response.getHeaders().remove(HttpHeaders.CONTENT_TYPE);
+                    return new byte[0];
+                }
+                return body;
+            });
+            return chain.filter(exchange.mutate().response(capturing).build());
+        }, NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1);
+    }
+
+    private Mono<Void> serve(ServerWebExchange exchange, CachedResponse cached) {
+        ServerHttpResponse response = exchange.getResponse();
+        if (matches(exchange.getRequest(), cached.etag())) {
+            response.setStatusCode(HttpStatus.NOT_MODIFIED);
+            response.getHeaders().setETag(cached.etag());
+            response.getHeaders().set(CACHE_STATUS_HEADER, "HIT");
+            return response.setComplete();
+        }
+        return cached.writeTo(response)
+                .doFirst(() -> response.getHeaders().set(CACHE_STATUS_HEADER, "HIT"));
+    }
+
+    private static boolean isCacheable(ServerHttpResponse response) {
+        if (!HttpStatus.OK.equals(response.getStatusCode())) {
+            return false;
+        }
+        String cacheControl = response.getHeaders().getCacheControl();
+        return cacheControl == null || !(cacheControl.contains("no-store") || cacheControl.contains("private"));
+    }
+
+    private static boolean matches(ServerHttpRequest request, String etag) {
+        List<String> ifNoneMatch = request.getHeaders().getIfNoneMatch();
+        for (String candidate : ifNoneMatch) {
+            if ("*".equals(candidate) || etag.equals(candidate) || ("W/" + etag).equals(candidate)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String etag(byte[] body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            return '"' + Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(digest, 16)) + '"';
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private void registerMeters(String routeId) {
+        counter("gateway.response.cache.hits", routeId, store -> store.hits.sum());
+        counter("gateway.response.cache.misses", routeId, store -> store.misses.sum());
+        counter("gateway.response.cache.evictions", routeId, store -> store.evictions.sum());
+        Gauge.builder("gateway.response.cache.bytes", stores, s -> s.get(routeId).usedBytes())
+                .tag("route", routeId)
+                .register(meterRegistry);
+    }
+
+    private void counter(String name, String routeId, ToDoubleFunction<ResponseCacheStore> value) {
+        FunctionCounter.builder(name, stores, s -> value.applyAsDouble(s.get(routeId)))
+                .tag("route", routeId)
+                .register(meterRegistry);
+    }
+
+    public static class Config implements HasRouteId {
+
+        private Duration ttl = Duration.ofSeconds(30);
+        private DataSize maxSize = DataSize.ofMegabytes(32);
+        private String routeId;
+
+        public Duration getTtl() {
+            return ttl;
+        }
+
+        public void setTtl(Duration ttl) {
+            this.ttl = ttl;
+        }
+
+        public DataSize getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(DataSize maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        @Override
+        public String getRouteId() {
+            return routeId;
+        }
+
+        @Override
+        public void setRouteId(String routeId) {
+            this.routeId = routeId;
+        }
+    }
+}
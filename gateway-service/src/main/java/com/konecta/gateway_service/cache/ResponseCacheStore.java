@@ -0,0 +1,87 @@
+package com.konecta.gateway_service.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * LRU store of cached responses bounded by a total byte budget, with a fixed time-to-live per entry.
+ * Every {@link #clear()} starts a new generation; responses fetched under an older one are dropped.
+ */
+public class ResponseCacheStore {
+
+    private final long maxBytes;
+    private final long ttlMillis;
+    private final LinkedHashMap<String, CachedResponse> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private long usedBytes;
+    private long generation;
+
+    final LongAdder hits = new LongAdder();
+    final LongAdder misses = new LongAdder();
+    final LongAdder evictions = new LongAdder();
+
+    public ResponseCacheStore(long maxBytes, long ttlMillis) {
+        this.maxBytes = maxBytes;
+        this.ttlMillis = ttlMillis;
+    }
+
+    public synchronized CachedResponse get(String key, long now) {
+        CachedResponse cached = entries.get(key);
+        if (cached == null) {
+            misses.increment();
+            return null;
+        }
+        if (now - cached.storedAt() >= ttlMillis) {
+            remove(key);
+            evictions.increment();
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return cached;
+    }
+
+    /** The current generation, to be passed to {@link #put} once the response has been fetched. */
+    public synchronized long generation() {
+        return generation;
+    }
+
+    public synchronized void put(String key, CachedResponse response, long fetchedInGeneration) {
+        // The cache was cleared while this response was in flight, so it may predate the write
+        if (fetchedInGeneration != generation) {
+            return;
+        }
+        // A single entry may use at most an eighth of the budget so one large page cannot flush the cache.
+        if (response.weight() > maxBytes / 8) {
+            return;
+        }
+        remove(key);
+        entries.put(key, response);
+        usedBytes += response.weight();
+        Iterator<Map.Entry<String, CachedResponse>> eldest = entries.entrySet().iterator();
+        while (usedBytes > maxBytes && eldest.hasNext()) {
+            usedBytes -= eldest.next().getValue().weight();
+            eldest.remove();
+            evictions.increment();
+        }
+    }
+
+    public synchronized void clear() {
+        generation++;
+        evictions.add(entries.size());
+        entries.clear();
+        usedBytes = 0;
+    }
+
+    public synchronized long usedBytes() {
+        return usedBytes;
+    }
+
+    private void remove(String key) {
+        CachedResponse previous = entries.remove(key);
+        if (previous != null) {
+            usedBytes -= previous.weight();
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.konecta.gateway_service.composite;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Builds an order page in one call: loads the order, then fetches every referenced product through
+ * product-service's multi-get, in parallel chunks. Product lookups that fail or time out are reported instead of failing the whole document.
+ */
+@Service
+public class OrderDetailsAggregator {
+
+    private final WebClient orderClient;
+    private final WebClient productClient;
+    private final ObjectMapper objectMapper;
+    private final Duration orderTimeout;
+    private final Duration productTimeout;
+    private final int maxConcurrency;
+    private final int productBatchSize;
+
+    public OrderDetailsAggregator(WebClient.Builder webClientBuilder,
+                                  ObjectMapper objectMapper,
+                                  @Value("${composite.order-service-url:http://localhost:8083}") String orderServiceUrl,
+                                  @Value("${composite.product-service-url:http://localhost:8082}") String productServiceUrl,
+                                  @Value("${composite.order-timeout:2s}") Duration orderTimeout,
+                                  @Value("${composite.product-timeout:1s}") Duration productTimeout,
+                                  @Value("${composite.max-concurrency:16}") int maxConcurrency,
+                                  @Value("${composite.product-batch-size:100}") int productBatchSize) {
+        this.orderClient = webClientBuilder.clone().baseUrl(orderServiceUrl).build();
+        this.productClient = webClientBuilder.clone().baseUrl(productServiceUrl).build();
+        this.objectMapper = objectMapper;
+        this.orderTimeout = orderTimeout;
+        this.productTimeout = productTimeout;
+        this.maxConcurrency = maxConcurrency;
+        this.productBatchSize = productBatchSize;
+    }
+
+    public Mono<JsonNode> orderDetails(long orderId, Consumer<HttpHeaders> orderHeaders) {
+        return orderClient.get()
+                .uri("/api/orders/{id}", orderId)
+                .headers(orderHeaders)
+                .retrieve()
+                .bodyToMono(JsonNode.class)
+                .timeout(orderTimeout)
+                .onErrorMap(WebClientResponseException.class, e -> new ResponseStatusException(e.getStatusCode(), "Order lookup failed"))
+                .onErrorMap(TimeoutException.class, e -> new ResponseStatusException(HttpStatus.GATEWAY_TIMEOUT, "Order lookup timed out"))
+                .flatMap(this::withProducts);
+    }
+
+    private Mono<JsonNode> withProducts(JsonNode order) {
+        Set<Long> productIds = new LinkedHashSet<>();
+        for (JsonNode item : order.path("items")) {
+            if (item.hasNonNull("productId")) {
+                productIds.add(item.get("productId").asLong());
+            }
+        }
+
+        // One multi-get per chunk of ids instead of one call per product
+        return Flux.fromIterable(productIds)
+                .buffer(productBatchSize)
+                .flatMap(chunk -> productClient.get()
+                        .uri(uri -> uri.path("/api/products/batch")
+                                .queryParam("ids", chunk.stream().map(String::valueOf).collect(Collectors.joining(",")))
+                                .build())
+                        .retrieve()
+                        .bodyToMono(JsonNode.class)
+                        .timeout(productTimeout)
+                        .flatMapIterable(batch -> batch.path("products"))
+                        .filter(product -> product.hasNonNull("id"))
+                        .map(product -> Map.entry(product.get("id").asLong(), product))
+                        // A failed chunk leaves its products missing rather than failing the page
+                        .onErrorResume(e -> Flux.empty()), maxConcurrency)
+                .collectMap(Map.Entry::getKey, Map.Entry::getValue, TreeMap::new)
+                .map(found -> {
+                    ObjectNode document = objectMapper.createObjectNode();
+                    document.set("order", order);
+                    ObjectNode products = document.putObject("products");
+                    ArrayNode missing = document.putArray("missingProducts");
+                    for (Long id : productIds) {
+                        JsonNode product = found.get(id);
+                        if (product == null) {
+                            missing.add(id);
+                        } else {
+                            products.set(String.valueOf(id), product);
+                        }
+                    }
+                    document.put("partial", !missing.isEmpty());
+                    return document;
+                });
+    }
+}
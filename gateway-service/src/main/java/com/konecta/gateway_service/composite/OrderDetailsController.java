@@ -0,0 +1,62 @@
+package com.konecta.gateway_service.composite;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.konecta.gateway_service.security.RevocationChecker;
+import com.konecta.gateway_service.security.TrustedIdentitySigner;
+import com.konecta.gateway_service.security.VerifiedTokenCache;
+import io.jsonwebtoken.Claims;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.StringUtils;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+/**
+ * Composition endpoints served by the gateway itself rather than proxied to a single service.
+ */
+@RestController
+@RequestMapping("/api/composite")
+public class OrderDetailsController {
+
+    private final OrderDetailsAggregator aggregator;
+    private final VerifiedTokenCache tokenCache;
+    private final TrustedIdentitySigner identitySigner;
+    private final RevocationChecker revocationChecker;
+
+    public OrderDetailsController(OrderDetailsAggregator aggregator, VerifiedTokenCache tokenCache,
+                                 TrustedIdentitySigner identitySigner, RevocationChecker revocationChecker) {
+        this.aggregator = aggregator;
+        this.tokenCache = tokenCache;
+        this.identitySigner = identitySigner;
+        this.revocationChecker = revocationChecker;
+    }
+
+    @GetMapping("/orders/{id}")
+    public Mono<ResponseEntity<JsonNode>> orderDetails(@PathVariable Long id,
+                                                       @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String auth) {
+        if (!StringUtils.hasText(auth) || !auth.startsWith("Bearer ")) {
+            return Mono.just(ResponseEntity.status(HttpStatus.UNAUTHORIZED).build());
+        }
+        Claims claims;
+        try {
+            claims = tokenCache.verify(auth.substring(7));
+        } catch (Exception e) {
+            return Mono.just(ResponseEntity.status(HttpStatus.UNAUTHORIZED).build());
+        }
+
+        return revocationChecker.isRevoked(claims.getId()).flatMap(revoked -> revoked
+                ? Mono.just(ResponseEntity.status(HttpStatus.UNAUTHORIZED).<JsonNode>build())
+                : aggregator.orderDetails(id, headers -> {
+                            headers.set(HttpHeaders.AUTHORIZATION, auth);
+                            if (identitySigner.isEnabled()) {
+                                identitySigner.apply(claims, headers);
+                            }
+                        })
+                        .map(ResponseEntity::ok));
+    }
+}
@@ -0,0 +1,57 @@
+package com.konecta.gateway_service.metrics;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * {@code /actuator/routelatency}: p50/p90/p99/p999/max in microseconds for every gateway route and phase.
+ */
+@Component
+@Endpoint(id = "routelatency")
+public class RouteLatencyEndpoint {
+
+    private final RouteLatencyRegistry registry;
+
+    public RouteLatencyEndpoint(RouteLatencyRegistry registry) {
+        this.registry = registry;
+    }
+
+    @ReadOperation
+    public Map<String, Object> routes() {
+        Map<String, Object> result = new TreeMap<>();
+        registry.routes().forEach((routeId, latency) -> result.put(routeId, describe(latency)));
+        return result;
+    }
+
+    @ReadOperation
+    public Map<String, Object> route(@Selector String routeId) {
+        RouteLatencyRegistry.RouteLatency latency = registry.routes().get(routeId);
+        return latency == null ? null : describe(latency);
+    }
+
+    private static Map<String, Object> describe(RouteLatencyRegistry.RouteLatency latency) {
+        Map<String, Object> phases = new LinkedHashMap<>();
+        phases.put("total", describe(latency.total.snapshot()));
+        phases.put("filters", describe(latency.filters.snapshot()));
+        phases.put("upstreamConnect", describe(latency.upstreamConnect.snapshot()));
+        phases.put("upstreamFirstByte", describe(latency.upstreamFirstByte.snapshot()));
+        return phases;
+    }
+
+    private static Map<String, Object> describe(LatencyHistogram.Snapshot snapshot) {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("count", snapshot.count());
+        stats.put("p50Micros", snapshot.percentile(0.50));
+        stats.put("p90Micros", snapshot.percentile(0.90));
+        stats.put("p99Micros", snapshot.percentile(0.99));
+        stats.put("p999Micros", snapshot.percentile(0.999));
+        stats.put("maxMicros", snapshot.max());
+        return stats;
+    }
+}
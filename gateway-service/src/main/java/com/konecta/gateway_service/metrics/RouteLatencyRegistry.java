@@ -0,0 +1,35 @@
+package com.konecta.gateway_service.metrics;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Latency histograms per gateway route, split into the phases a proxied request goes through.
+ */
+@Component
+public class RouteLatencyRegistry {
+
+    private final Map<String, RouteLatency> routes = new ConcurrentHashMap<>();
+
+    public RouteLatency forRoute(String routeId) {
+        RouteLatency latency = routes.get(routeId);
+        return latency != null ? latency : routes.computeIfAbsent(routeId, id -> new RouteLatency());
+    }
+
+    public Map<String, RouteLatency> routes() {
+        return routes;
+    }
+
+    public static final class RouteLatency {
+        /** Gateway entry until the response completes. */
+        public final LatencyHistogram total = new LatencyHistogram();
+        /** Gateway entry until the routing filter starts: all filters, including JwtAuth. */
+        public final LatencyHistogram filters = new LatencyHistogram();
+        /** Routing filter start until the request is on the wire: pool acquire plus connect. */
+        public final LatencyHistogram upstreamConnect = new LatencyHistogram();
+        /** Request sent until upstream response headers arrive. */
+        public final LatencyHistogram upstreamFirstByte = new LatencyHistogram();
+    }
+}
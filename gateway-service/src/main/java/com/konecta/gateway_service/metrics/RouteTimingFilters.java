@@ -0,0 +1,128 @@
+package com.konecta.gateway_service.metrics;
+
+import org.springframework.cloud.gateway.config.HttpClientCustomizer;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.NettyRoutingFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.util.context.ContextView;
+
+/**
+ * Timestamps each proxied request at gateway entry, at the start of routing, when the upstream
+ * request is sent and when upstream headers arrive, and records the phases into
+ * {@link RouteLatencyRegistry} once the exchange completes.
+ */
+@Configuration
+public class RouteTimingFilters {
+
+    private static final String TIMING_ATTR = ExchangeTiming.class.getName();
+
+    static final class ExchangeTiming {
+        final long start = System.nanoTime();
+        volatile long routingStart;
+        volatile long requestSent;
+        volatile long firstByte;
+    }
+
+    @Bean
+    public GlobalFilter routeTimingFilter(RouteLatencyRegistry registry) {
+        return new RouteTimingFilter(registry);
+    }
+
+    @Bean
+    public GlobalFilter routingStartFilter() {
+        return new RoutingStartFilter();
+    }
+
+    @Bean
+    public HttpClientCustomizer upstreamTimingCustomizer() {
+        return httpClient -> httpClient
+                .doOnRequest((request, connection) -> {
+                    ExchangeTiming timing = timing(request.currentContextView());
+                    if (timing != null) {
+                        timing.requestSent = System.nanoTime();
+                    }
+                })
+                .doOnResponse((response, connection) -> {
+                    ExchangeTiming timing = timing(response.currentContextView());
+                    if (timing != null) {
+                        timing.firstByte = System.nanoTime();
+                    }
+                });
+    }
+
+    private static ExchangeTiming timing(ContextView context) {
+        return context.hasKey(ExchangeTiming.class) ? context.get(ExchangeTiming.class) : null;
+    }
+
+    /**
+     * Outermost filter: starts the clock and records every phase when the exchange finishes.
+     */
+    static final class RouteTimingFilter implements GlobalFilter, Ordered {
+
+        private final RouteLatencyRegistry registry;
+
+        RouteTimingFilter(RouteLatencyRegistry registry) {
+            this.registry = registry;
+        }
+
+        @Override
+        public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+            ExchangeTiming timing = new ExchangeTiming();
+            exchange.getAttributes().put(TIMING_ATTR, timing);
+            return chain.filter(exchange)
+                    .contextWrite(ctx -> ctx.put(ExchangeTiming.class, timing))
+                    .doFinally(signal -> record(exchange, timing));
+        }
+
+        private void record(ServerWebExchange exchange, ExchangeTiming timing) {
+            Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+            if (route == null) {
+                return;
+            }
+            long end = System.nanoTime();
+            RouteLatencyRegistry.RouteLatency latency = registry.forRoute(route.getId());
+            latency.total.recordNanos(end - timing.start);
+            if (timing.routingStart != 0) {
+                latency.filters.recordNanos(timing.routingStart - timing.start);
+            }
+            if (timing.requestSent != 0) {
+                latency.upstreamConnect.recordNanos(timing.requestSent - timing.routingStart);
+            }
+            if (timing.firstByte != 0) {
+                latency.upstreamFirstByte.recordNanos(timing.firstByte - timing.requestSent);
+            }
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+    }
+
+    /**
+     * Runs immediately before {@link NettyRoutingFilter}, marking the end of gateway filter time.
+     */
+    static final class RoutingStartFilter implements GlobalFilter, Ordered {
+
+        @Override
+        public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+            ExchangeTiming timing = exchange.getAttribute(TIMING_ATTR);
+            if (timing != null) {
+                timing.routingStart = System.nanoTime();
+            }
+            return chain.filter(exchange);
+        }
+
+        @Override
+        public int getOrder() {
+            return NettyRoutingFilter.ORDER - 1;
+        }
+    }
+}
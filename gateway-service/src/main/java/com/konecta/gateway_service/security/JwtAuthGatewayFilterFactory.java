@@ -1,8 +1,6 @@
 package com.konecta.gateway_service.security;
 
-import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.security.Keys;
-import org.springframework.beans.factory.annotation.Value;
+import io.jsonwebtoken.Claims;
 import org.springframework.cloud.gateway.filter.GatewayFilter;
 import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
 import org.springframework.http.HttpHeaders;
@@ -11,15 +9,21 @@ import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 import org.springframework.web.server.ServerWebExchange;
 
-import javax.crypto.SecretKey;
-
 @Component("JwtAuth")
 public class JwtAuthGatewayFilterFactory extends AbstractGatewayFilterFactory<Object> {
 
-    private final SecretKey key;
+    /** Exchange attribute holding the verified {@link Claims}, for filters that run after this one. */
+    public static final String CLAIMS_ATTRIBUTE = JwtAuthGatewayFilterFactory.class.getName() + ".claims";
+
+    private final VerifiedTokenCache tokenCache;
+    private final TrustedIdentitySigner identitySigner;
+    private final RevocationChecker revocationChecker;
 
-    public JwtAuthGatewayFilterFactory(@Value("${jwt.secret}") String secret) {
-        this.key = Keys.hmacShaKeyFor(secret.getBytes(java.nio.charset.StandardCharsets.UTF_8));
+    public JwtAuthGatewayFilterFactory(VerifiedTokenCache tokenCache, TrustedIdentitySigner identitySigner,
+                                       RevocationChecker revocationChecker) {
+        this.tokenCache = tokenCache;
+        this.identitySigner = identitySigner;
+        this.revocationChecker = revocationChecker;
     }
 
     @Override
@@ -30,12 +34,23 @@ public class JwtAuthGatewayFilterFactory extends AbstractGatewayFilterFactory<Ob
                 return unauthorized(exchange);
             }
             String token = auth.substring(7);
+            Claims claims;
             try {
-                Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token);
-                return chain.filter(exchange);
+                claims = tokenCache.verify(token);
             } catch (Exception e) {
                 return unauthorized(exchange);
             }
+            exchange.getAttributes().put(CLAIMS_ATTRIBUTE, claims);
+            return revocationChecker.isRevoked(claims.getId()).flatMap(revoked -> revoked
+                    ? unauthorized(exchange)
+                    : chain.filter(exchange.mutate()
+                            .request(request -> request.headers(headers -> {
+                                TrustedIdentitySigner.strip(headers);
+                                if (identitySigner.isEnabled()) {
+                                    identitySigner.apply(claims, headers);
+                                }
+                            }))
+                            .build()));
         };
     }
 
@@ -0,0 +1,136 @@
+package com.konecta.gateway_service.security;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps a local copy of auth-service's revoked-token Bloom filter, refreshed by polling with
+ * {@code If-None-Match}. Most tokens are cleared by an in-memory filter probe; only possible matches
+ * are confirmed against auth-service, and those answers are remembered until the next snapshot.
+ */
+@Component
+public class RevocationChecker implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(RevocationChecker.class);
+    private static final Mono<Boolean> NOT_REVOKED = Mono.just(false);
+    private static final int MAX_CONFIRMED = 10_000;
+
+    private final boolean enabled;
+    private final WebClient authClient;
+    private final Duration refreshInterval;
+    private final Duration checkTimeout;
+    private final Map<String, Boolean> confirmed = new ConcurrentHashMap<>();
+
+    private volatile RevocationBloomFilter filter;
+    private volatile String etag;
+    private Disposable poller;
+
+    public RevocationChecker(WebClient.Builder webClientBuilder,
+                             @Value("${auth.revocation.enabled:true}") boolean enabled,
+                             @Value("${auth.revocation.url:http://localhost:8081}") String authServiceUrl,
+                             @Value("${auth.revocation.refresh-interval:5s}") Duration refreshInterval,
+                             @Value("${auth.revocation.check-timeout:500ms}") Duration checkTimeout) {
+        this.enabled = enabled;
+        this.authClient = webClientBuilder.clone().baseUrl(authServiceUrl).build();
+        this.refreshInterval = refreshInterval;
+        this.checkTimeout = checkTimeout;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        poller = Flux.interval(Duration.ZERO, refreshInterval)
+                .onBackpressureDrop()
+                .concatMap(tick -> refresh()
+                        .onErrorResume(e -> {
+                            log.debug("Revocation snapshot refresh failed: {}", e.toString());
+                            return Mono.empty();
+                        }), 1)
+                .subscribe();
+    }
+
+    /**
+     * Emits whether the token id has been revoked. Tokens without an id, and all tokens before the
+     * first snapshot has arrived, are treated as not revoked. If a possible match cannot be confirmed
+     * in time, the token is treated as revoked.
+     */
+    public Mono<Boolean> isRevoked(String jti) {
+        RevocationBloomFilter current = filter;
+        if (!enabled || jti == null || current == null || !current.mightContain(jti)) {
+            return NOT_REVOKED;
+        }
+        Boolean known = confirmed.get(jti);
+        if (known != null) {
+            return Mono.just(known);
+        }
+        return authClient.get()
+                .uri("/api/auth/revocations/{jti}", jti)
+                .retrieve()
+                .bodyToMono(JsonNode.class)
+                .map(body -> body.path("revoked").asBoolean(true))
+                .timeout(checkTimeout)
+                .doOnNext(revoked -> remember(jti, revoked))
+                .onErrorReturn(true);
+    }
+
+    @Override
+    public void destroy() {
+        if (poller != null) {
+            poller.dispose();
+        }
+    }
+
+    private Mono<Void> refresh() {
+        return authClient.get()
+                .uri("/api/auth/revocations/snapshot")
+                .headers(headers -> {
+                    String current = etag;
+                    if (current != null) {
+                        headers.setIfNoneMatch(current);
+                    }
+                })
+                .exchangeToMono(response -> {
+                    if (response.statusCode().value() == HttpStatus.NOT_MODIFIED.value()
+                            || !response.statusCode().is2xxSuccessful()) {
+                        return response.releaseBody();
+                    }
+                    String newEtag = response.headers().asHttpHeaders().getETag();
+                    return response.bodyToMono(byte[].class)
+                            .doOnNext(bytes -> install(bytes, newEtag))
+                            .then();
+                });
+    }
+
+    private void install(byte[] bytes, String newEtag) {
+        RevocationBloomFilter.Snapshot snapshot = RevocationBloomFilter.fromBytes(bytes);
+        filter = snapshot.filter();
+        etag = newEtag;
+        // A confirmed false positive may have been revoked since, so answers only live for one snapshot
+        confirmed.clear();
+        log.debug("Installed revocation snapshot {}", Long.toHexString(snapshot.version()));
+    }
+
+    private void remember(String jti, boolean revoked) {
+        if (confirmed.size() >= MAX_CONFIRMED) {
+            confirmed.clear();
+        }
+        confirmed.put(jti, revoked);
+    }
+}
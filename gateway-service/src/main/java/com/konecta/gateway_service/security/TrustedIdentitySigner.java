@@ -0,0 +1,87 @@
+package com.konecta.gateway_service.security;
+
+import io.jsonwebtoken.Claims;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.stream.Collectors;
+
+/**
+ * Forwards the claims of an already verified JWT to downstream services as HMAC-signed headers,
+ * so they can build their security context without parsing and re-verifying the token.
+ */
+@Component
+public class TrustedIdentitySigner {
+
+    public static final String USER_HEADER = "X-Auth-User";
+    public static final String ROLES_HEADER = "X-Auth-Roles";
+    public static final String EXPIRES_HEADER = "X-Auth-Expires";
+    public static final String SIGNATURE_HEADER = "X-Auth-Signature";
+
+    private final boolean enabled;
+    private final ThreadLocal<Mac> mac;
+
+    public TrustedIdentitySigner(@Value("${gateway.identity.enabled:false}") boolean enabled,
+                                 @Value("${gateway.identity.secret:}") String secret) {
+        if (enabled && secret.isBlank()) {
+            throw new IllegalStateException("gateway.identity.secret must be set when identity propagation is enabled");
+        }
+        this.enabled = enabled;
+        SecretKeySpec key = enabled ? new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256") : null;
+        this.mac = ThreadLocal.withInitial(() -> {
+            try {
+                Mac instance = Mac.getInstance("HmacSHA256");
+                instance.init(key);
+                return instance;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("HmacSHA256 not available", e);
+            }
+        });
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Replaces any client-supplied identity headers with signed ones describing {@code claims}.
+     */
+    public void apply(Claims claims, HttpHeaders headers) {
+        String user = claims.getSubject();
+        String roles = roles(claims);
+        // A token without exp is forwarded as already expired, leaving downstream to verify it itself.
+        String expires = claims.getExpiration() == null ? "0" : String.valueOf(claims.getExpiration().getTime() / 1000);
+
+        headers.set(USER_HEADER, user);
+        headers.set(ROLES_HEADER, roles);
+        headers.set(EXPIRES_HEADER, expires);
+        headers.set(SIGNATURE_HEADER, sign(user, roles, expires));
+    }
+
+    public static void strip(HttpHeaders headers) {
+        headers.remove(USER_HEADER);
+        headers.remove(ROLES_HEADER);
+        headers.remove(EXPIRES_HEADER);
+        headers.remove(SIGNATURE_HEADER);
+    }
+
+    private String sign(String user, String roles, String expires) {
+        byte[] payload = (user + '\n' + roles + '\n' + expires).getBytes(StandardCharsets.UTF_8);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(mac.get().doFinal(payload));
+    }
+
+    private static String roles(Claims claims) {
+        Object roles = claims.get("roles");
+        if (roles instanceof Collection<?> values) {
+            return values.stream().map(String::valueOf).collect(Collectors.joining(","));
+        }
+        return roles == null ? "" : roles.toString();
+    }
+}
@@ -0,0 +1,139 @@
+package com.konecta.gateway_service.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Verifies bearer tokens with a single shared parser and remembers the claims of tokens that
+ * already passed signature verification, keyed by a SHA-256 digest of the raw token.
+ * Entries are never served past the token's own {@code exp}.
+ */
+@Component
+public class VerifiedTokenCache implements MeterBinder {
+
+    private final JwtParser parser;
+    private final int maxEntries;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public VerifiedTokenCache(@Value("${jwt.secret}") String secret,
+                              @Value("${jwt.cache.max-entries:10000}") int maxEntries) {
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8)))
+                .build();
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Returns the verified claims for the token, parsing it only when no live cache entry exists.
+     *
+     * @throws io.jsonwebtoken.JwtException if the token is malformed, badly signed or expired
+     */
+    public Claims verify(String token) {
+        String digest = digest(token);
+        long now = System.currentTimeMillis();
+
+        Entry cached = entries.get(digest);
+        if (cached != null) {
+            if (cached.expiresAt > now) {
+                hits.increment();
+                return cached.claims;
+            }
+            if (entries.remove(digest, cached)) {
+                evictions.increment();
+            }
+        }
+
+        misses.increment();
+        Claims claims = parser.parseClaimsJws(token).getBody();
+        Date expiration = claims.getExpiration();
+        if (expiration == null) {
+            // Without an exp we cannot bound the entry's lifetime, so it is never cached.
+            return claims;
+        }
+        if (expiration.getTime() <= now) {
+            throw new ExpiredJwtException(null, claims, "Token expired");
+        }
+        if (entries.size() >= maxEntries) {
+            makeRoom(now);
+        }
+        entries.put(digest, new Entry(claims, expiration.getTime()));
+        return claims;
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    public long evictions() {
+        return evictions.sum();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("gateway.jwt.cache.hits", this, VerifiedTokenCache::hits).register(registry);
+        FunctionCounter.builder("gateway.jwt.cache.misses", this, VerifiedTokenCache::misses).register(registry);
+        FunctionCounter.builder("gateway.jwt.cache.evictions", this, VerifiedTokenCache::evictions).register(registry);
+        Gauge.builder("gateway.jwt.cache.size", this, VerifiedTokenCache::size).register(registry);
+    }
+
+    private void makeRoom(long now) {
+        // Drop expired tokens first; if the cache is still full, evict arbitrary entries down to 90%.
+        entries.entrySet().removeIf(e -> {
+            if (e.getValue().expiresAt <= now) {
+                evictions.increment();
+                return true;
+            }
+            return false;
+        });
+        int target = maxEntries - Math.max(1, maxEntries / 10);
+        Iterator<String> it = entries.keySet().iterator();
+        while (entries.size() > target && it.hasNext()) {
+            it.next();
+            it.remove();
+            evictions.increment();
+        }
+    }
+
+    private static String digest(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return Base64.getEncoder().encodeToString(sha256.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private record Entry(Claims claims, long expiresAt) {
+    }
+}
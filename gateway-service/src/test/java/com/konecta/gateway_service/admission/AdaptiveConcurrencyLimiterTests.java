@@ -0,0 +1,139 @@
+package com.konecta.gateway_service.admission;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveConcurrencyLimiterTests {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(5);
+
+    private final AtomicLong clock = new AtomicLong();
+    private final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(20, 5, 22, 2.0, 0.5, clock::get);
+
+    @Test
+    void windowNeedsTenSamplesBeforeTheLimitMoves() {
+        clock.addAndGet(FAST);
+        releaseConcurrently(9, FAST, false);
+        assertThat(limiter.getLimit()).isEqualTo(20);
+
+        // The tenth sample closes the first window and sets the baseline; nine in flight is under half the limit
+        releaseConcurrently(1, FAST, false);
+        assertThat(limiter.getLimit()).isEqualTo(20);
+
+        clock.addAndGet(FAST);
+        releaseConcurrently(9, FAST, false);
+        assertThat(limiter.getLimit()).isEqualTo(20);
+
+        releaseConcurrently(1, FAST, false);
+        assertThat(limiter.getLimit()).isEqualTo(20);
+
+        clock.addAndGet(FAST);
+        releaseConcurrently(10, FAST, false);
+        assertThat(limiter.getLimit()).isEqualTo(21);
+    }
+
+    @Test
+    void windowLastsAtLeastOneBaselineRtt() {
+        clock.addAndGet(FAST);
+        releaseConcurrently(10, FAST, false);
+        assertThat(limiter.getLimit()).isEqualTo(21);
+
+        // Same instant as the previous window closed: samples keep accumulating
+        releaseConcurrently(11, FAST, false);
+        assertThat(limiter.getLimit()).isEqualTo(21);
+
+        clock.addAndGet(FAST);
+        releaseConcurrently(1, FAST, false);
+        assertThat(limiter.getLimit()).isEqualTo(22);
+    }
+
+    @Test
+    void healthyWindowGrowsOnlyWhileTheLimitIsUsed() {
+        clock.addAndGet(FAST);
+        releaseOneAtATime(10, FAST, false);
+        clock.addAndGet(FAST);
+        releaseOneAtATime(10, FAST, false);
+        assertThat(limiter.getLimit()).isEqualTo(20);
+
+        clock.addAndGet(FAST);
+        releaseConcurrently(10, FAST, false);
+        assertThat(limiter.getLimit()).isEqualTo(21);
+    }
+
+    @Test
+    void slowWindowBacksOffOncePerWindow() {
+        clock.addAndGet(FAST);
+        releaseConcurrently(10, FAST, false);
+        assertThat(limiter.getLimit()).isEqualTo(21);
+
+        clock.addAndGet(FAST);
+        releaseOneAtATime(10, SLOW, false);
+        assertThat(limiter.getLimit()).isEqualTo(10);
+
+        // Further slow calls inside the same window do not shrink the limit again
+        releaseOneAtATime(20, SLOW, false);
+        assertThat(limiter.getLimit()).isEqualTo(10);
+
+        clock.addAndGet(SLOW);
+        releaseOneAtATime(1, SLOW, false);
+        assertThat(limiter.getLimit()).isEqualTo(5);
+    }
+
+    @Test
+    void failuresBackOffEvenWhenLatencyIsFine() {
+        clock.addAndGet(FAST);
+        releaseConcurrently(10, FAST, false);
+        assertThat(limiter.getLimit()).isEqualTo(21);
+
+        clock.addAndGet(FAST);
+        releaseConcurrently(9, FAST, false);
+        releaseConcurrently(1, FAST, true);
+        assertThat(limiter.getLimit()).isEqualTo(10);
+    }
+
+    @Test
+    void limitStaysWithinBounds() {
+        for (int i = 0; i < 5; i++) {
+            clock.addAndGet(FAST);
+            releaseConcurrently(11, FAST, false);
+        }
+        assertThat(limiter.getLimit()).isEqualTo(22);
+
+        for (int i = 0; i < 5; i++) {
+            clock.addAndGet(FAST);
+            releaseOneAtATime(10, FAST, true);
+        }
+        assertThat(limiter.getLimit()).isEqualTo(5);
+    }
+
+    @Test
+    void releasesWithoutRttAreNotSampled() {
+        clock.addAndGet(FAST);
+        releaseConcurrently(20, -1, true);
+
+        assertThat(limiter.getLimit()).isEqualTo(20);
+        assertThat(limiter.getInFlight()).isZero();
+        assertThat(limiter.tryAcquire()).isTrue();
+    }
+
+    private void releaseConcurrently(int calls, long rttNanos, boolean failed) {
+        for (int i = 0; i < calls; i++) {
+            assertThat(limiter.tryAcquire()).isTrue();
+        }
+        for (int i = 0; i < calls; i++) {
+            limiter.release(rttNanos, failed);
+        }
+    }
+
+    private void releaseOneAtATime(int calls, long rttNanos, boolean failed) {
+        for (int i = 0; i < calls; i++) {
+            assertThat(limiter.tryAcquire()).isTrue();
+            limiter.release(rttNanos, failed);
+        }
+    }
+}
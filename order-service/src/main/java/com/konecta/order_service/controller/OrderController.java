@@ -1,11 +1,20 @@
 package com.konecta.order_service.controller;
 
+import com.konecta.order_service.dto.OrderPage;
+import com.konecta.order_service.dto.OrderSummary;
 import com.konecta.order_service.model.Order;
+import com.konecta.order_service.service.IdempotencyKeyInProgressException;
+import com.konecta.order_service.service.IdempotencyKeyMismatchException;
+import com.konecta.order_service.service.IdempotencyService;
 import com.konecta.order_service.service.OrderService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.security.Principal;
+import java.time.OffsetDateTime;
 import java.util.List;
 
 @RestController
@@ -13,21 +22,51 @@ import java.util.List;
 @RequiredArgsConstructor
 public class OrderController {
 
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
     private final OrderService orderService;
+    private final IdempotencyService idempotencyService;
 
     @GetMapping
     public List<Order> getAll() {
         return orderService.getAll();
     }
 
+    /**
+     * A user's order history, newest first; pass {@code nextCursor} back as {@code cursor} for the next page.
+     */
+    @GetMapping("/users/{userId}")
+    public OrderPage<OrderSummary> getUserOrders(@PathVariable Long userId,
+                                                 @RequestParam(required = false) String status,
+                                                 @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime from,
+                                                 @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime to,
+                                                 @RequestParam(required = false) Integer size,
+                                                 @RequestParam(required = false) String cursor) {
+        return orderService.getUserOrders(userId, status, from, to, size, cursor);
+    }
+
     @GetMapping("/{id}")
     public Order getById(@PathVariable Long id) {
         return orderService.getById(id);
     }
 
+    /**
+     * Creates an order. With an {@code Idempotency-Key} header, a repeat of the same request by the
+     * same user returns the original order (marked {@code Idempotent-Replayed: true}) instead of
+     * creating another one.
+     */
     @PostMapping
-    public Order create(@RequestBody Order order) {
-        return orderService.create(order);
+    public ResponseEntity<Order> create(@RequestBody Order order,
+                                        @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+                                        Principal principal) {
+        if (idempotencyKey == null) {
+            return ResponseEntity.ok(orderService.create(order));
+        }
+        IdempotencyService.Result result = idempotencyService.execute(principal.getName(), idempotencyKey, order,
+                () -> orderService.create(order));
+        return ResponseEntity.ok()
+                .header("Idempotent-Replayed", String.valueOf(result.replayed()))
+                .body(result.order());
     }
 
     @PutMapping("/{id}")
@@ -40,4 +79,19 @@ public class OrderController {
         orderService.delete(id);
         return ResponseEntity.ok().build();
     }
+
+    @ExceptionHandler(IdempotencyKeyMismatchException.class)
+    public ResponseEntity<?> idempotencyKeyMismatch(IdempotencyKeyMismatchException e) {
+        return ResponseEntity.unprocessableEntity().body(e.getMessage());
+    }
+
+    @ExceptionHandler(IdempotencyKeyInProgressException.class)
+    public ResponseEntity<?> idempotencyKeyInProgress(IdempotencyKeyInProgressException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<?> badRequest(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
 }
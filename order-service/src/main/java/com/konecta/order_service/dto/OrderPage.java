@@ -0,0 +1,9 @@
+package com.konecta.order_service.dto;
+
+import java.util.List;
+
+/**
+ * One page of a keyset listing. {@code nextCursor} is {@code null} on the last page.
+ */
+public record OrderPage<T>(List<T> items, String nextCursor) {
+}
@@ -0,0 +1,23 @@
+package com.konecta.order_service.dto;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+/**
+ * Read-only view of an order for listings; detached from the persistence context.
+ */
+public record OrderSummary(Long orderId, Long userId, OffsetDateTime orderDate, String status, Double totalAmount,
+                           List<OrderLine> items) {
+
+    // Used by the JPQL constructor expression; items are fetched separately for the whole page
+    public OrderSummary(Long orderId, Long userId, OffsetDateTime orderDate, String status, Double totalAmount) {
+        this(orderId, userId, orderDate, status, totalAmount, List.of());
+    }
+
+    public OrderSummary withItems(List<OrderLine> items) {
+        return new OrderSummary(orderId, userId, orderDate, status, totalAmount, items);
+    }
+
+    public record OrderLine(Long productId, Integer quantity, Double price) {
+    }
+}
@@ -0,0 +1,151 @@
+package com.konecta.order_service.messaging;
+
+import com.konecta.order_service.model.OutboxEvent;
+import com.konecta.order_service.repository.OutboxEventRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageBuilder;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Publishes the transactional outbox. Each pass locks a batch of pending events, sends them on one
+ * channel, waits once for the broker to confirm the whole batch, and marks them sent in the same
+ * transaction. If the broker does not confirm, the transaction rolls back and the batch is retried,
+ * so delivery is at-least-once; consumers deduplicate on the order id.
+ *
+ * <p>The relay polls as a safety net and is woken right after an order commits. Sent rows are
+ * pruned once they are older than the retention period.
+ */
+@Component
+public class OutboxRelay implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+    private static final String TYPE_ID_HEADER = "__TypeId__";
+    private static final int PRUNE_BATCH = 1000;
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final RabbitTemplate rabbitTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final long pollIntervalMillis;
+    private final long confirmTimeoutMillis;
+    private final Duration retention;
+    private final long pruneIntervalMillis;
+    private final AtomicBoolean wakeUpPending = new AtomicBoolean();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "outbox-relay");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       RabbitTemplate rabbitTemplate,
+                       TransactionTemplate transactionTemplate,
+                       @Value("${orders.outbox.batch-size:100}") int batchSize,
+                       @Value("${orders.outbox.poll-interval:1s}") Duration pollInterval,
+                       @Value("${orders.outbox.confirm-timeout:5s}") Duration confirmTimeout,
+                       @Value("${orders.outbox.retention:7d}") Duration retention,
+                       @Value("${orders.outbox.prune-interval:1h}") Duration pruneInterval) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.rabbitTemplate = rabbitTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.pollIntervalMillis = pollInterval.toMillis();
+        this.confirmTimeoutMillis = confirmTimeout.toMillis();
+        this.retention = retention;
+        this.pruneIntervalMillis = pruneInterval.toMillis();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        scheduler.scheduleWithFixedDelay(this::drain, 0, pollIntervalMillis, TimeUnit.MILLISECONDS);
+        scheduler.scheduleWithFixedDelay(this::prune, pruneIntervalMillis, pruneIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Requests a pass as soon as possible. Calls made while one is already queued are coalesced.
+     */
+    public void wakeUp() {
+        if (wakeUpPending.compareAndSet(false, true) && !scheduler.isShutdown()) {
+            scheduler.execute(() -> {
+                wakeUpPending.set(false);
+                drain();
+            });
+        }
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdownNow();
+    }
+
+    private void drain() {
+        try {
+            Integer sent;
+            do {
+                sent = transactionTemplate.execute(status -> relayBatch());
+            } while (sent != null && sent == batchSize && !scheduler.isShutdown());
+        } catch (RuntimeException e) {
+            log.warn("Outbox relay pass failed, will retry: {}", e.getMessage());
+        }
+    }
+
+    private int relayBatch() {
+        List<OutboxEvent> batch = outboxEventRepository.lockNextBatch(batchSize);
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        rabbitTemplate.invoke(operations -> {
+            for (OutboxEvent event : batch) {
+                operations.send(event.getExchange(), event.getRoutingKey(), toMessage(event));
+            }
+            operations.waitForConfirmsOrDie(confirmTimeoutMillis);
+            return null;
+        });
+        outboxEventRepository.markSent(batch.stream().map(OutboxEvent::getId).toList(), OffsetDateTime.now());
+        return batch.size();
+    }
+
+    private static Message toMessage(OutboxEvent event) {
+        return MessageBuilder.withBody(event.getPayload().getBytes(StandardCharsets.UTF_8))
+                .setContentType(MessageProperties.CONTENT_TYPE_JSON)
+                .setContentEncoding(StandardCharsets.UTF_8.name())
+                .setMessageId("outbox-" + event.getId())
+                .setHeader(TYPE_ID_HEADER, event.getPayloadType())
+                .build();
+    }
+
+    private void prune() {
+        try {
+            OffsetDateTime cutoff = OffsetDateTime.now().minus(retention);
+            int deleted;
+            long total = 0;
+            do {
+                deleted = transactionTemplate.execute(status -> outboxEventRepository.deleteSentBefore(cutoff, PRUNE_BATCH));
+                total += deleted;
+            } while (deleted == PRUNE_BATCH && !scheduler.isShutdown());
+            if (total > 0) {
+                log.info("Pruned {} sent outbox events older than {}", total, retention);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Outbox pruning failed: {}", e.getMessage());
+        }
+    }
+}
@@ -1,9 +1,18 @@
 package com.konecta.order_service.messaging;
 
 import org.springframework.amqp.core.*;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.config.RetryInterceptorBuilder;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.rabbit.retry.MessageBatchRecoverer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.amqp.SimpleRabbitListenerContainerFactoryConfigurer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Duration;
+
 @Configuration
 public class PaymentEventsConfig {
     public static final String EXCHANGE = "payment.events";
@@ -11,6 +20,7 @@ public class PaymentEventsConfig {
     public static final String PAYMENT_FAILED_QUEUE = "payment.failed.queue";
     public static final String PAYMENT_SUCCESS_KEY = "payment.success";
     public static final String PAYMENT_FAILED_KEY = "payment.failed";
+    public static final String PAYMENT_DLQ = "payment.events.dlq";
 
     @Bean
     public TopicExchange paymentEventsExchange() {
@@ -27,6 +37,12 @@ public class PaymentEventsConfig {
         return new Queue(PAYMENT_FAILED_QUEUE, true);
     }
 
+    // Payment events whose status update still failed after the retries
+    @Bean
+    public Queue paymentDeadLetterQueue() {
+        return new Queue(PAYMENT_DLQ, true);
+    }
+
     @Bean
     public Binding paymentSuccessBinding(Queue paymentSuccessQueue, TopicExchange paymentEventsExchange) {
         return BindingBuilder.bind(paymentSuccessQueue).to(paymentEventsExchange).with(PAYMENT_SUCCESS_KEY);
@@ -36,4 +52,41 @@ public class PaymentEventsConfig {
     public Binding paymentFailedBinding(Queue paymentFailedQueue, TopicExchange paymentEventsExchange) {
         return BindingBuilder.bind(paymentFailedQueue).to(paymentEventsExchange).with(PAYMENT_FAILED_KEY);
     }
+
+    /**
+     * Delivers up to {@code batch-size} payment events at a time, or whatever arrived within
+     * {@code batch-window}. Messages are acked when the listener returns, i.e. after the status
+     * update has committed. A failing batch is retried in place up to {@code max-attempts} times
+     * with exponential back-off; after that its messages are republished to
+     * {@code payment.events.dlq} (error in {@code x-exception-message}) and acked, so the payment
+     * queues keep moving. Dead-lettered events can be replayed by moving them back to their queue.
+     * Only a failure to republish them leads to redelivery, so no event is dropped.
+     */
+    @Bean
+    public SimpleRabbitListenerContainerFactory paymentBatchListenerContainerFactory(
+            SimpleRabbitListenerContainerFactoryConfigurer configurer,
+            ConnectionFactory connectionFactory,
+            RabbitTemplate rabbitTemplate,
+            @Value("${payments.events.batch-size:200}") int batchSize,
+            @Value("${payments.events.batch-window:50ms}") Duration batchWindow,
+            @Value("${payments.events.max-attempts:3}") int maxAttempts,
+            @Value("${payments.events.retry-interval:1s}") Duration retryInterval) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        configurer.configure(factory, connectionFactory);
+        factory.setBatchListener(true);
+        factory.setConsumerBatchEnabled(true);
+        factory.setBatchSize(batchSize);
+        factory.setReceiveTimeout(batchWindow.toMillis());
+        factory.setPrefetchCount(batchSize);
+        MessageBatchRecoverer toDeadLetterQueue = (messages, cause) -> messages.forEach(message ->
+                rabbitTemplate.send("", PAYMENT_DLQ, MessageBuilder.fromMessage(message)
+                        .setHeader("x-exception-message", String.valueOf(cause.getMessage()))
+                        .build()));
+        factory.setAdviceChain(RetryInterceptorBuilder.stateless()
+                .maxAttempts(maxAttempts)
+                .backOffOptions(retryInterval.toMillis(), 2.0, retryInterval.toMillis() * 10)
+                .recoverer(toDeadLetterQueue)
+                .build());
+        return factory;
+    }
 }
@@ -2,48 +2,59 @@ package com.konecta.order_service.messaging;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.konecta.order_service.model.Order;
-import com.konecta.order_service.repository.OrderRepository;
+import com.konecta.order_service.service.OrderService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.Message;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
 import org.springframework.stereotype.Component;
 
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class PaymentEventsListener {
 
-    private final OrderRepository orderRepository;
+    private final OrderService orderService;
     private final ObjectMapper objectMapper = new ObjectMapper();
 
-    @RabbitListener(queues = PaymentEventsConfig.PAYMENT_SUCCESS_QUEUE)
-    public void onPaymentSuccess(byte[] body) {
-        handlePaymentEvent(body, true);
+    @RabbitListener(queues = PaymentEventsConfig.PAYMENT_SUCCESS_QUEUE, containerFactory = "paymentBatchListenerContainerFactory")
+    public void onPaymentSuccess(List<Message> messages) {
+        handlePaymentEvents(messages, true);
     }
 
-    @RabbitListener(queues = PaymentEventsConfig.PAYMENT_FAILED_QUEUE)
-    public void onPaymentFailed(byte[] body) {
-        handlePaymentEvent(body, false);
+    @RabbitListener(queues = PaymentEventsConfig.PAYMENT_FAILED_QUEUE, containerFactory = "paymentBatchListenerContainerFactory")
+    public void onPaymentFailed(List<Message> messages) {
+        handlePaymentEvents(messages, false);
     }
 
-    private void handlePaymentEvent(byte[] body, boolean success) {
-        try {
-            JsonNode node = objectMapper.readTree(body);
-            long orderId = node.get("orderId").asLong();
-            String status = success ? "PAID" : "CANCELLED";
-
-            Order order = orderRepository.findById(orderId)
-                    .orElse(null);
-            if (order == null) {
-                log.warn("Order not found for payment event, orderId={}", orderId);
-                return;
+    /**
+     * Applies a batch of payment events with one UPDATE. Malformed messages are dropped; if the
+     * update fails, the exception propagates to the container's bounded retry and, once that is
+     * exhausted, the batch goes to {@code payment.events.dlq} (see {@code PaymentEventsConfig}).
+     */
+    private void handlePaymentEvents(List<Message> messages, boolean success) {
+        Set<Long> orderIds = new LinkedHashSet<>();
+        for (Message message : messages) {
+            try {
+                JsonNode node = objectMapper.readTree(message.getBody()).get("orderId");
+                long orderId = node == null ? 0 : node.asLong();
+                if (orderId <= 0) {
+                    log.warn("Dropping payment event without a valid orderId");
+                    continue;
+                }
+                orderIds.add(orderId);
+            } catch (Exception e) {
+                log.error("Dropping malformed payment event", e);
             }
-            order.setStatus(status);
-            orderRepository.save(order);
-            log.info("Updated order {} status to {} due to payment {}", orderId, status, success ? "success" : "failure");
-        } catch (Exception e) {
-            log.error("Failed to process payment event", e);
         }
+
+        String status = success ? "PAID" : "CANCELLED";
+        int updated = orderService.applyPaymentOutcome(orderIds, status);
+        log.info("Payment {}: {} event(s), {} order(s) set to {}, {} skipped (not found or no longer CREATED)",
+                success ? "success" : "failure", messages.size(), updated, status, orderIds.size() - updated);
     }
 }
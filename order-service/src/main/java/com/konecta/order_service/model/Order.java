@@ -2,13 +2,21 @@ package com.konecta.order_service.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
 
 import java.time.OffsetDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "orders")
+@Table(
+        name = "orders",
+        indexes = {
+                // Per-user history, newest first, with and without a status filter
+                @Index(name = "idx_orders_user_date_id", columnList = "user_id, order_date, order_id"),
+                @Index(name = "idx_orders_user_status_date_id", columnList = "user_id, status, order_date, order_id")
+        }
+)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -30,7 +38,9 @@ public class Order {
     @Column(nullable = false)
     private Double totalAmount;
 
+    // Loaded for up to 100 orders per query when several orders are read at once
     @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.EAGER)
+    @BatchSize(size = 100)
     @Builder.Default
     private List<OrderItem> items = new ArrayList<>();
 
@@ -0,0 +1,52 @@
+package com.konecta.order_service.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.OffsetDateTime;
+
+/**
+ * A message waiting to be published, written in the same transaction as the change it announces.
+ * {@code OutboxRelay} publishes pending rows in id order and stamps {@code sentAt}.
+ */
+@Entity
+@Table(
+        name = "outbox_events",
+        indexes = {
+                @Index(name = "idx_outbox_sent_id", columnList = "sent_at, id"),
+                @Index(name = "idx_outbox_aggregate_sent_id", columnList = "aggregate_id, sent_at, id")
+        }
+)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // The order the event belongs to; events of one aggregate are published strictly in id order
+    @Column(nullable = false)
+    private Long aggregateId;
+
+    @Column(nullable = false)
+    private String exchange;
+
+    @Column(nullable = false)
+    private String routingKey;
+
+    // Sent as the __TypeId__ header, as Jackson2JsonMessageConverter would
+    @Column(nullable = false)
+    private String payloadType;
+
+    @Column(nullable = false, columnDefinition = "text")
+    private String payload;
+
+    @Column(nullable = false)
+    private OffsetDateTime createdAt;
+
+    private OffsetDateTime sentAt;
+}
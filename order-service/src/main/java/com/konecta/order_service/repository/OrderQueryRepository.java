@@ -0,0 +1,27 @@
+package com.konecta.order_service.repository;
+
+import com.konecta.order_service.dto.OrderSummary;
+
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Projection queries for order listings, newest first.
+ */
+public interface OrderQueryRepository {
+
+    /**
+     * Returns up to {@code limit} orders of a user ordered by {@code (orderDate, orderId)} descending,
+     * starting after the given keyset position. {@code status}, {@code from} (inclusive) and
+     * {@code to} (exclusive) are optional filters. Items are not loaded.
+     */
+    List<OrderSummary> findUserOrders(Long userId, String status, OffsetDateTime from, OffsetDateTime to,
+                                      OffsetDateTime afterDate, Long afterId, int limit);
+
+    /**
+     * Loads the items of several orders with one query, keyed by order id.
+     */
+    Map<Long, List<OrderSummary.OrderLine>> findLines(Collection<Long> orderIds);
+}
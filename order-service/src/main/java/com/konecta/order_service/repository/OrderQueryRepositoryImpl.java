@@ -0,0 +1,77 @@
+package com.konecta.order_service.repository;
+
+import com.konecta.order_service.dto.OrderSummary;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+class OrderQueryRepositoryImpl implements OrderQueryRepository {
+
+    private static final String SUMMARY_SELECT = "select new com.konecta.order_service.dto.OrderSummary("
+            + "o.orderId, o.userId, o.orderDate, o.status, o.totalAmount) from Order o where o.userId = :userId";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<OrderSummary> findUserOrders(Long userId, String status, OffsetDateTime from, OffsetDateTime to,
+                                             OffsetDateTime afterDate, Long afterId, int limit) {
+        StringBuilder jpql = new StringBuilder(SUMMARY_SELECT);
+        if (status != null) {
+            jpql.append(" and o.status = :status");
+        }
+        if (from != null) {
+            jpql.append(" and o.orderDate >= :from");
+        }
+        if (to != null) {
+            jpql.append(" and o.orderDate < :to");
+        }
+        if (afterId != null) {
+            jpql.append(" and (o.orderDate < :afterDate or (o.orderDate = :afterDate and o.orderId < :afterId))");
+        }
+        jpql.append(" order by o.orderDate desc, o.orderId desc");
+
+        TypedQuery<OrderSummary> query = entityManager.createQuery(jpql.toString(), OrderSummary.class)
+                .setParameter("userId", userId)
+                .setMaxResults(limit);
+        if (status != null) {
+            query.setParameter("status", status);
+        }
+        if (from != null) {
+            query.setParameter("from", from);
+        }
+        if (to != null) {
+            query.setParameter("to", to);
+        }
+        if (afterId != null) {
+            query.setParameter("afterDate", afterDate);
+            query.setParameter("afterId", afterId);
+        }
+        return query.getResultList();
+    }
+
+    @Override
+    public Map<Long, List<OrderSummary.OrderLine>> findLines(Collection<Long> orderIds) {
+        Map<Long, List<OrderSummary.OrderLine>> lines = new HashMap<>();
+        if (orderIds.isEmpty()) {
+            return lines;
+        }
+        List<Object[]> rows = entityManager.createQuery(
+                        "select i.order.orderId, i.productId, i.quantity, i.price from OrderItem i "
+                                + "where i.order.orderId in :orderIds order by i.order.orderId, i.orderItemId", Object[].class)
+                .setParameter("orderIds", orderIds)
+                .getResultList();
+        for (Object[] row : rows) {
+            lines.computeIfAbsent((Long) row[0], id -> new ArrayList<>())
+                    .add(new OrderSummary.OrderLine((Long) row[1], (Integer) row[2], (Double) row[3]));
+        }
+        return lines;
+    }
+}
@@ -2,6 +2,21 @@ package com.konecta.order_service.repository;
 
 import com.konecta.order_service.model.Order;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
-public interface OrderRepository extends JpaRepository<Order, Long> {
+import java.util.Collection;
+
+public interface OrderRepository extends JpaRepository<Order, Long>, OrderQueryRepository {
+
+    /**
+     * Moves the given orders from {@code expected} to {@code status} in one statement; orders in any
+     * other state are left alone. Returns the number of orders changed.
+     */
+    @Modifying
+    @Query("update Order o set o.status = :status where o.orderId in :orderIds and o.status = :expected")
+    int transitionStatus(@Param("orderIds") Collection<Long> orderIds,
+                         @Param("expected") String expected,
+                         @Param("status") String status);
 }
@@ -0,0 +1,34 @@
+package com.konecta.order_service.repository;
+
+import com.konecta.order_service.model.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Locks the oldest pending events, skipping rows another relay holds. Only the oldest pending
+     * event of each aggregate qualifies, so a later event can never overtake an earlier one that is
+     * still being published elsewhere.
+     */
+    @Query(value = "SELECT * FROM outbox_events e WHERE e.sent_at IS NULL "
+            + "AND NOT EXISTS (SELECT 1 FROM outbox_events p "
+            + "WHERE p.aggregate_id = e.aggregate_id AND p.sent_at IS NULL AND p.id < e.id) "
+            + "ORDER BY e.id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<OutboxEvent> lockNextBatch(@Param("limit") int limit);
+
+    @Modifying
+    @Query("update OutboxEvent e set e.sentAt = :sentAt where e.id in :ids")
+    int markSent(@Param("ids") Collection<Long> ids, @Param("sentAt") OffsetDateTime sentAt);
+
+    @Modifying
+    @Query(value = "DELETE FROM outbox_events WHERE id IN "
+            + "(SELECT id FROM outbox_events WHERE sent_at < :cutoff LIMIT :limit)", nativeQuery = true)
+    int deleteSentBefore(@Param("cutoff") OffsetDateTime cutoff, @Param("limit") int limit);
+}
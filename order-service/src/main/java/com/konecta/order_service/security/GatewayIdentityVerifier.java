@@ -0,0 +1,95 @@
+package com.konecta.order_service.security;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Checks the signed identity headers added by the gateway after it has verified the caller's JWT.
+ * A valid set of headers lets the request skip the local JWT parse entirely.
+ */
+@Component
+public class GatewayIdentityVerifier {
+
+    public static final String USER_HEADER = "X-Auth-User";
+    public static final String ROLES_HEADER = "X-Auth-Roles";
+    public static final String EXPIRES_HEADER = "X-Auth-Expires";
+    public static final String SIGNATURE_HEADER = "X-Auth-Signature";
+
+    private final boolean enabled;
+    private final ThreadLocal<Mac> mac;
+
+    public GatewayIdentityVerifier(@Value("${gateway.identity.enabled:false}") boolean enabled,
+                                   @Value("${gateway.identity.secret:}") String secret) {
+        if (enabled && secret.isBlank()) {
+            throw new IllegalStateException("gateway.identity.secret must be set when identity propagation is enabled");
+        }
+        this.enabled = enabled;
+        SecretKeySpec key = enabled ? new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256") : null;
+        this.mac = ThreadLocal.withInitial(() -> {
+            try {
+                Mac instance = Mac.getInstance("HmacSHA256");
+                instance.init(key);
+                return instance;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("HmacSHA256 not available", e);
+            }
+        });
+    }
+
+    /**
+     * Returns the identity carried by the request's gateway headers, or {@code null} if propagation is
+     * disabled or the headers are missing, expired or not signed by the gateway.
+     */
+    public TrustedIdentity verify(HttpServletRequest request) {
+        if (!enabled) {
+            return null;
+        }
+        String user = request.getHeader(USER_HEADER);
+        String signature = request.getHeader(SIGNATURE_HEADER);
+        String expires = request.getHeader(EXPIRES_HEADER);
+        if (!StringUtils.hasText(user) || !StringUtils.hasText(signature) || !StringUtils.hasText(expires)) {
+            return null;
+        }
+        String roles = request.getHeader(ROLES_HEADER) == null ? "" : request.getHeader(ROLES_HEADER);
+
+        byte[] expected = mac.get().doFinal((user + '\n' + roles + '\n' + expires).getBytes(StandardCharsets.UTF_8));
+        byte[] actual;
+        try {
+            actual = Base64.getUrlDecoder().decode(signature);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        if (!MessageDigest.isEqual(expected, actual)) {
+            return null;
+        }
+        try {
+            if (Long.parseLong(expires) * 1000 <= System.currentTimeMillis()) {
+                return null;
+            }
+        } catch (NumberFormatException e) {
+            return null;
+        }
+
+        List<GrantedAuthority> authorities = Arrays.stream(roles.split(","))
+                .filter(StringUtils::hasText)
+                .map(role -> (GrantedAuthority) new SimpleGrantedAuthority("ROLE_" + role.trim()))
+                .toList();
+        return new TrustedIdentity(user, authorities);
+    }
+
+    public record TrustedIdentity(String username, List<GrantedAuthority> authorities) {
+    }
+}
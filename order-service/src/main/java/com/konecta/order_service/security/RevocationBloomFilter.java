@@ -0,0 +1,115 @@
+package com.konecta.order_service.security;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Bloom filter over revoked token ids (JWT {@code jti}), exchanged between auth-service and its
+ * consumers as a compact versioned snapshot. A negative answer is exact; a positive one must be
+ * confirmed against auth-service. Auth, gateway and order services carry identical copies of
+ * this class, so the hashing and the wire format must stay in sync.
+ */
+public final class RevocationBloomFilter {
+
+    public record Snapshot(long version, RevocationBloomFilter filter) {
+    }
+
+    private static final int MIN_BITS = 64;
+
+    private final long[] words;
+    private final int numBits;
+    private final int numHashes;
+
+    private RevocationBloomFilter(long[] words, int numBits, int numHashes) {
+        this.words = words;
+        this.numBits = numBits;
+        this.numHashes = numHashes;
+    }
+
+    /**
+     * Creates an empty filter sized for {@code expectedEntries} at the given false positive rate.
+     */
+    public static RevocationBloomFilter create(int expectedEntries, double falsePositiveRate) {
+        int n = Math.max(1, expectedEntries);
+        double ln2 = Math.log(2);
+        long bits = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (ln2 * ln2));
+        int numBits = (int) Math.min(Integer.MAX_VALUE - 63, Math.max(MIN_BITS, bits));
+        numBits = (numBits + 63) & ~63;
+        int numHashes = Math.max(1, (int) Math.round((double) numBits / n * ln2));
+        return new RevocationBloomFilter(new long[numBits >>> 6], numBits, numHashes);
+    }
+
+    public void add(String jti) {
+        long h1 = hash(jti);
+        long h2 = mix(h1) | 1;
+        for (int i = 0; i < numHashes; i++) {
+            int bit = (int) Long.remainderUnsigned(h1 + i * h2, numBits);
+            words[bit >>> 6] |= 1L << bit;
+        }
+    }
+
+    public boolean mightContain(String jti) {
+        long h1 = hash(jti);
+        long h2 = mix(h1) | 1;
+        for (int i = 0; i < numHashes; i++) {
+            int bit = (int) Long.remainderUnsigned(h1 + i * h2, numBits);
+            if ((words[bit >>> 6] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Content hash of the filter, used as its snapshot version so equal sets always get equal versions.
+     */
+    public long fingerprint() {
+        long h = 0xcbf29ce484222325L ^ numHashes;
+        for (long word : words) {
+            h = mix(h ^ word);
+        }
+        return h;
+    }
+
+    /**
+     * Serialises as {@code version, numHashes, numBits, words...}, all big-endian.
+     */
+    public byte[] toBytes(long version) {
+        ByteBuffer buffer = ByteBuffer.allocate(16 + words.length * 8);
+        buffer.putLong(version).putInt(numHashes).putInt(numBits);
+        for (long word : words) {
+            buffer.putLong(word);
+        }
+        return buffer.array();
+    }
+
+    public static Snapshot fromBytes(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        long version = buffer.getLong();
+        int numHashes = buffer.getInt();
+        int numBits = buffer.getInt();
+        if (numHashes < 1 || numBits < MIN_BITS || (numBits & 63) != 0 || buffer.remaining() != numBits / 8) {
+            throw new IllegalArgumentException("Malformed revocation snapshot");
+        }
+        long[] words = new long[numBits >>> 6];
+        for (int i = 0; i < words.length; i++) {
+            words[i] = buffer.getLong();
+        }
+        return new Snapshot(version, new RevocationBloomFilter(words, numBits, numHashes));
+    }
+
+    // FNV-1a over the UTF-16 code units: token ids are ASCII, and this avoids encoding on the hot path
+    private static long hash(String value) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            h ^= value.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        return h;
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
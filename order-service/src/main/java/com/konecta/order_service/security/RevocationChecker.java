@@ -0,0 +1,128 @@
+package com.konecta.order_service.security;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps a local copy of auth-service's revoked-token Bloom filter, refreshed in the background with
+ * {@code If-None-Match}. Only tokens the filter reports as possibly revoked are confirmed against
+ * auth-service; those answers are remembered until the next snapshot.
+ */
+@Component
+public class RevocationChecker implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(RevocationChecker.class);
+    private static final int MAX_CONFIRMED = 10_000;
+
+    private final boolean enabled;
+    private final RestClient authClient;
+    private final long refreshIntervalMillis;
+    private final Map<String, Boolean> confirmed = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "revocation-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile RevocationBloomFilter filter;
+    private volatile String etag;
+
+    public RevocationChecker(@Value("${auth.revocation.enabled:true}") boolean enabled,
+                             @Value("${auth.revocation.url:http://localhost:8081}") String authServiceUrl,
+                             @Value("${auth.revocation.refresh-interval:5s}") Duration refreshInterval,
+                             @Value("${auth.revocation.check-timeout:500ms}") Duration checkTimeout) {
+        this.enabled = enabled;
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(checkTimeout);
+        requestFactory.setReadTimeout(checkTimeout);
+        this.authClient = RestClient.builder().baseUrl(authServiceUrl).requestFactory(requestFactory).build();
+        this.refreshIntervalMillis = refreshInterval.toMillis();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (enabled) {
+            scheduler.scheduleWithFixedDelay(this::refresh, 0, refreshIntervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Returns whether the token id has been revoked. Tokens without an id, and all tokens before the
+     * first snapshot has arrived, are treated as not revoked. If a possible match cannot be confirmed,
+     * the token is treated as revoked.
+     */
+    public boolean isRevoked(String jti) {
+        RevocationBloomFilter current = filter;
+        if (!enabled || jti == null || current == null || !current.mightContain(jti)) {
+            return false;
+        }
+        Boolean known = confirmed.get(jti);
+        if (known != null) {
+            return known;
+        }
+        boolean revoked;
+        try {
+            JsonNode body = authClient.get()
+                    .uri("/api/auth/revocations/{jti}", jti)
+                    .retrieve()
+                    .body(JsonNode.class);
+            revoked = body == null || body.path("revoked").asBoolean(true);
+        } catch (RestClientException e) {
+            return true;
+        }
+        if (confirmed.size() >= MAX_CONFIRMED) {
+            confirmed.clear();
+        }
+        confirmed.put(jti, revoked);
+        return revoked;
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdownNow();
+    }
+
+    private void refresh() {
+        try {
+            ResponseEntity<byte[]> response = authClient.get()
+                    .uri("/api/auth/revocations/snapshot")
+                    .headers(headers -> {
+                        String current = etag;
+                        if (current != null) {
+                            headers.setIfNoneMatch(current);
+                        }
+                    })
+                    .exchange((request, res) -> ResponseEntity.status(res.getStatusCode())
+                            .headers(res.getHeaders())
+                            .body(res.getStatusCode().is2xxSuccessful() ? res.getBody().readAllBytes() : null));
+            if (response.getStatusCode() == HttpStatus.NOT_MODIFIED || response.getBody() == null) {
+                return;
+            }
+            RevocationBloomFilter.Snapshot snapshot = RevocationBloomFilter.fromBytes(response.getBody());
+            filter = snapshot.filter();
+            etag = response.getHeaders().getETag();
+            // A confirmed false positive may have been revoked since, so answers only live for one snapshot
+            confirmed.clear();
+        } catch (RuntimeException e) {
+            log.debug("Revocation snapshot refresh failed: {}", e.toString());
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.konecta.order_service.service;
+
+public class IdempotencyKeyInProgressException extends RuntimeException {
+
+    public IdempotencyKeyInProgressException(String message) {
+        super(message);
+    }
+}
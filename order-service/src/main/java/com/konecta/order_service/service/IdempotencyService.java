@@ -0,0 +1,250 @@
+package com.konecta.order_service.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.konecta.order_service.model.IdempotencyRecord;
+import com.konecta.order_service.model.Order;
+import com.konecta.order_service.repository.IdempotencyRecordRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Runs order creation at most once per {@code (user, Idempotency-Key)} and replays the original
+ * response for repeats.
+ *
+ * <p>Recent keys live in a bounded in-memory map of futures, so a concurrent duplicate waits for the
+ * first request instead of racing it. Older keys are answered from the {@code idempotency_keys}
+ * table, which is written in the order's own transaction. When two instances race on the same key,
+ * the table's unique constraint makes the loser roll back and replay the winner's response. Expired
+ * rows are deleted in the background.
+ */
+@Service
+public class IdempotencyService implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyService.class);
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final int CLEANUP_BATCH = 1000;
+
+    public record Result(Order order, boolean replayed) {
+    }
+
+    private record Outcome(Order order, String response, boolean replayed) {
+    }
+
+    private record Entry(CompletableFuture<String> response, String requestHash, long expiresAt) {
+    }
+
+    private final IdempotencyRecordRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+    private final long memoryTtlMillis;
+    private final long waitTimeoutMillis;
+    private final long cleanupIntervalMillis;
+    private final Map<String, Entry> recent;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "idempotency-cleanup");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public IdempotencyService(IdempotencyRecordRepository repository,
+                              TransactionTemplate transactionTemplate,
+                              ObjectMapper objectMapper,
+                              @Value("${orders.idempotency.ttl:24h}") Duration ttl,
+                              @Value("${orders.idempotency.memory-ttl:10m}") Duration memoryTtl,
+                              @Value("${orders.idempotency.memory-max-entries:10000}") int maxEntries,
+                              @Value("${orders.idempotency.wait-timeout:10s}") Duration waitTimeout,
+                              @Value("${orders.idempotency.cleanup-interval:1h}") Duration cleanupInterval) {
+        this.repository = repository;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.ttl = ttl;
+        this.memoryTtlMillis = memoryTtl.toMillis();
+        this.waitTimeoutMillis = waitTimeout.toMillis();
+        this.cleanupIntervalMillis = cleanupInterval.toMillis();
+        this.recent = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                // An evicted in-flight key is still protected by the table's unique constraint
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        scheduler.scheduleWithFixedDelay(this::deleteExpired, cleanupIntervalMillis, cleanupIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * Runs {@code action} unless {@code key} was already used by {@code scope}, in which case the
+     * original order is returned with {@code replayed} set.
+     *
+     * @throws IllegalArgumentException           if the key is blank or too long
+     * @throws IdempotencyKeyMismatchException    if the key was used for a different request body
+     * @throws IdempotencyKeyInProgressException  if the first request with this key is still running
+     */
+    public Result execute(String scope, String key, Object request, Supplier<Order> action) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency-Key must be 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+        String requestHash = hash(request);
+        String id = scope + '\n' + key;
+
+        while (true) {
+            Entry entry;
+            boolean owner = false;
+            synchronized (recent) {
+                long now = System.currentTimeMillis();
+                entry = recent.get(id);
+                if (entry == null || entry.expiresAt() <= now) {
+                    entry = new Entry(new CompletableFuture<>(), requestHash, now + memoryTtlMillis);
+                    recent.put(id, entry);
+                    owner = true;
+                }
+            }
+            if (!entry.requestHash().equals(requestHash)) {
+                throw mismatch();
+            }
+
+            if (!owner) {
+                try {
+                    return new Result(read(entry.response().get(waitTimeoutMillis, TimeUnit.MILLISECONDS)), true);
+                } catch (ExecutionException e) {
+                    // The first request failed and released the key; try again
+                    continue;
+                } catch (TimeoutException e) {
+                    throw new IdempotencyKeyInProgressException("A request with this Idempotency-Key is still in progress");
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IdempotencyKeyInProgressException("Interrupted while waiting for the original request");
+                }
+            }
+
+            try {
+                Outcome outcome = executeOnce(scope, key, requestHash, action);
+                entry.response().complete(outcome.response());
+                return new Result(outcome.order(), outcome.replayed());
+            } catch (RuntimeException e) {
+                synchronized (recent) {
+                    recent.remove(id, entry);
+                }
+                entry.response().completeExceptionally(e);
+                throw e;
+            }
+        }
+    }
+
+    private Outcome executeOnce(String scope, String key, String requestHash, Supplier<Order> action) {
+        OffsetDateTime now = OffsetDateTime.now();
+        Optional<IdempotencyRecord> stored = repository.findByScopeAndIdempotencyKey(scope, key);
+        if (stored.isPresent() && stored.get().getExpiresAt().isAfter(now)) {
+            return replay(stored.get(), requestHash);
+        }
+        try {
+            return transactionTemplate.execute(status -> {
+                stored.ifPresent(repository::delete);
+                Order order = action.get();
+                String response = write(order);
+                repository.save(IdempotencyRecord.builder()
+                        .scope(scope)
+                        .idempotencyKey(key)
+                        .requestHash(requestHash)
+                        .response(response)
+                        .createdAt(now)
+                        .expiresAt(now.plus(ttl))
+                        .build());
+                return new Outcome(order, response, false);
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Another instance committed this key first; its order stands and ours was rolled back
+            return repository.findByScopeAndIdempotencyKey(scope, key)
+                    .map(winner -> replay(winner, requestHash))
+                    .orElseThrow(() -> e);
+        }
+    }
+
+    private Outcome replay(IdempotencyRecord stored, String requestHash) {
+        if (!stored.getRequestHash().equals(requestHash)) {
+            throw mismatch();
+        }
+        return new Outcome(read(stored.getResponse()), stored.getResponse(), true);
+    }
+
+    private static IdempotencyKeyMismatchException mismatch() {
+        return new IdempotencyKeyMismatchException("Idempotency-Key was already used for a different request");
+    }
+
+    private String hash(Object request) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(request));
+            return HexFormat.of().formatHex(digest);
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Could not hash request", e);
+        }
+    }
+
+    private String write(Order order) {
+        try {
+            return objectMapper.writeValueAsString(order);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize order", e);
+        }
+    }
+
+    private Order read(String response) {
+        try {
+            return objectMapper.readValue(response.getBytes(StandardCharsets.UTF_8), Order.class);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not read stored response", e);
+        }
+    }
+
+    private void deleteExpired() {
+        try {
+            OffsetDateTime now = OffsetDateTime.now();
+            int deleted;
+            long total = 0;
+            do {
+                deleted = transactionTemplate.execute(status -> repository.deleteExpired(now, CLEANUP_BATCH));
+                total += deleted;
+            } while (deleted == CLEANUP_BATCH && !scheduler.isShutdown());
+            if (total > 0) {
+                log.info("Deleted {} expired idempotency keys", total);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Idempotency key cleanup failed: {}", e.getMessage());
+        }
+    }
+}
@@ -2,16 +2,34 @@ package com.konecta.order_service.service;
 
 import com.konecta.order_service.model.Order;
 import com.konecta.order_service.model.OrderItem;
+import com.konecta.order_service.model.OutboxEvent;
 import com.konecta.order_service.repository.OrderItemRepository;
 import com.konecta.order_service.repository.OrderRepository;
+import com.konecta.order_service.repository.OutboxEventRepository;
 import com.konecta.order_service.messaging.OrderCreatedEvent;
 import com.konecta.order_service.messaging.OrderEventsConfig;
+import com.konecta.order_service.messaging.OutboxRelay;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.konecta.order_service.dto.OrderPage;
+import com.konecta.order_service.dto.OrderSummary;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Collection;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -20,12 +38,77 @@ public class OrderService {
 
     private final OrderRepository orderRepository;
     private final OrderItemRepository orderItemRepository;
-    private final RabbitTemplate rabbitTemplate;
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxRelay outboxRelay;
+    private final ObjectMapper objectMapper;
+
+    @Value("${orders.page.default-size:20}")
+    private int defaultPageSize;
+
+    @Value("${orders.page.max-size:100}")
+    private int maxPageSize;
 
     public List<Order> getAll() {
         return orderRepository.findAll();
     }
 
+    /**
+     * One page of a user's orders, newest first, optionally filtered by status and by an
+     * {@code [from, to)} date range. Every page costs two indexed queries, one for the orders and one
+     * for all of their items, however many orders the user has.
+     *
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    @Transactional(readOnly = true)
+    public OrderPage<OrderSummary> getUserOrders(Long userId, String status, OffsetDateTime from, OffsetDateTime to,
+                                                 Integer size, String cursor) {
+        int limit = Math.min(maxPageSize, Math.max(1, size == null ? defaultPageSize : size));
+        OffsetDateTime afterDate = null;
+        Long afterId = null;
+        if (cursor != null && !cursor.isEmpty()) {
+            String[] parts = decodeCursor(cursor);
+            afterDate = OffsetDateTime.ofInstant(Instant.parse(parts[0]), ZoneOffset.UTC);
+            afterId = Long.valueOf(parts[1]);
+        }
+
+        // One extra row tells us whether another page exists without a count query
+        List<OrderSummary> rows = orderRepository.findUserOrders(userId,
+                status == null ? null : status.toUpperCase(Locale.ROOT), from, to, afterDate, afterId, limit + 1);
+        List<OrderSummary> page = rows.size() > limit ? rows.subList(0, limit) : rows;
+
+        Map<Long, List<OrderSummary.OrderLine>> lines =
+                orderRepository.findLines(page.stream().map(OrderSummary::orderId).toList());
+        List<OrderSummary> items = page.stream()
+                .map(order -> order.withItems(lines.getOrDefault(order.orderId(), List.of())))
+                .toList();
+
+        String nextCursor = null;
+        if (rows.size() > limit) {
+            OrderSummary last = items.get(items.size() - 1);
+            nextCursor = encodeCursor(last.orderDate(), last.orderId());
+        }
+        return new OrderPage<>(items, nextCursor);
+    }
+
+    private static String encodeCursor(OffsetDateTime orderDate, Long orderId) {
+        String raw = orderDate.toInstant() + "|" + orderId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String[] decodeCursor(String cursor) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|", -1);
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Malformed cursor");
+            }
+            Instant.parse(parts[0]);
+            Long.parseLong(parts[1]);
+            return parts;
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Malformed cursor", e);
+        }
+    }
+
     public Order getById(Long id) {
         return orderRepository.findById(id).orElseThrow(() -> new RuntimeException("Order not found"));
     }
@@ -40,7 +123,7 @@ public class OrderService {
         }
         Order saved = orderRepository.save(order);
 
-        // Publish OrderCreated event
+        // Record OrderCreated in the outbox; the relay publishes it once this transaction commits
         OrderCreatedEvent event = new OrderCreatedEvent(
                 saved.getOrderId(),
                 saved.getUserId(),
@@ -49,7 +132,24 @@ public class OrderService {
                         .map(i -> new OrderCreatedEvent.Item(i.getProductId(), i.getQuantity(), i.getPrice()))
                         .collect(Collectors.toList())
         );
-        rabbitTemplate.convertAndSend(OrderEventsConfig.EXCHANGE, OrderEventsConfig.ORDER_CREATED_ROUTING_KEY, event);
+        try {
+            outboxEventRepository.save(OutboxEvent.builder()
+                    .aggregateId(saved.getOrderId())
+                    .exchange(OrderEventsConfig.EXCHANGE)
+                    .routingKey(OrderEventsConfig.ORDER_CREATED_ROUTING_KEY)
+                    .payloadType(OrderCreatedEvent.class.getName())
+                    .payload(objectMapper.writeValueAsString(event))
+                    .createdAt(OffsetDateTime.now())
+                    .build());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize OrderCreated event", e);
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                outboxRelay.wakeUp();
+            }
+        });
 
         return saved;
     }
@@ -69,6 +169,19 @@ public class OrderService {
         return orderRepository.save(existing);
     }
 
+    /**
+     * Applies one payment outcome to a batch of orders with a single compare-and-set UPDATE. Only
+     * orders still {@code CREATED} change, so redelivered or late events cannot overwrite a settled
+     * order. Returns the number of orders updated.
+     */
+    @Transactional
+    public int applyPaymentOutcome(Collection<Long> orderIds, String status) {
+        if (orderIds.isEmpty()) {
+            return 0;
+        }
+        return orderRepository.transitionStatus(orderIds, "CREATED", status);
+    }
+
     public void delete(Long id) {
         orderRepository.deleteById(id);
     }
@@ -0,0 +1,154 @@
+package com.konecta.order_service.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.konecta.order_service.model.IdempotencyRecord;
+import com.konecta.order_service.model.Order;
+import com.konecta.order_service.repository.IdempotencyRecordRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class IdempotencyServiceTests {
+
+    private static final Map<String, Object> BODY = Map.of("userId", 1, "totalAmount", 10.0);
+
+    private final IdempotencyRecordRepository repository = mock(IdempotencyRecordRepository.class);
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final AtomicInteger calls = new AtomicInteger();
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void concurrentDuplicateWaitsForTheFirstRequest() throws Exception {
+        IdempotencyService service = service(Duration.ofSeconds(5));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<IdempotencyService.Result> first = executor.submit(() -> service.execute("1", "key", BODY, () -> {
+            started.countDown();
+            await(release);
+            return order(42L);
+        }));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        Future<IdempotencyService.Result> duplicate = executor.submit(() -> service.execute("1", "key", BODY, counting(43L)));
+        release.countDown();
+
+        assertThat(first.get(5, TimeUnit.SECONDS).replayed()).isFalse();
+        IdempotencyService.Result replayed = duplicate.get(5, TimeUnit.SECONDS);
+        assertThat(replayed.replayed()).isTrue();
+        assertThat(replayed.order().getOrderId()).isEqualTo(42L);
+        assertThat(calls).hasValue(0);
+        verify(repository, times(1)).save(any());
+    }
+
+    @Test
+    void failedFirstAttemptReleasesTheKey() {
+        IdempotencyService service = service(Duration.ofSeconds(5));
+
+        assertThatThrownBy(() -> service.execute("1", "key", BODY, () -> {
+            throw new IllegalStateException("stock service down");
+        })).isInstanceOf(IllegalStateException.class);
+        IdempotencyService.Result retry = service.execute("1", "key", BODY, counting(7L));
+
+        assertThat(retry.replayed()).isFalse();
+        assertThat(retry.order().getOrderId()).isEqualTo(7L);
+        assertThat(calls).hasValue(1);
+    }
+
+    @Test
+    void differentBodyWithTheSameKeyIsRejected() {
+        IdempotencyService service = service(Duration.ofSeconds(5));
+        service.execute("1", "key", BODY, counting(1L));
+
+        assertThatThrownBy(() -> service.execute("1", "key", Map.of("userId", 1, "totalAmount", 99.0), counting(2L)))
+                .isInstanceOf(IdempotencyKeyMismatchException.class);
+        // The same key under another user is independent
+        assertThat(service.execute("2", "key", BODY, counting(3L)).replayed()).isFalse();
+        assertThat(calls).hasValue(2);
+    }
+
+    @Test
+    void storedKeyWithDifferentBodyIsRejected() {
+        when(repository.findByScopeAndIdempotencyKey("1", "key")).thenReturn(Optional.of(IdempotencyRecord.builder()
+                .scope("1")
+                .idempotencyKey("key")
+                .requestHash("another-request")
+                .response("{}")
+                .expiresAt(OffsetDateTime.now().plusHours(1))
+                .build()));
+        IdempotencyService service = service(Duration.ofSeconds(5));
+
+        assertThatThrownBy(() -> service.execute("1", "key", BODY, counting(1L)))
+                .isInstanceOf(IdempotencyKeyMismatchException.class);
+        assertThat(calls).hasValue(0);
+    }
+
+    @Test
+    void duplicateGivesUpWhenTheFirstRequestTakesTooLong() throws Exception {
+        IdempotencyService service = service(Duration.ofMillis(50));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<IdempotencyService.Result> first = executor.submit(() -> service.execute("1", "key", BODY, () -> {
+            started.countDown();
+            await(release);
+            return order(42L);
+        }));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThatThrownBy(() -> service.execute("1", "key", BODY, counting(43L)))
+                .isInstanceOf(IdempotencyKeyInProgressException.class);
+        release.countDown();
+        assertThat(first.get(5, TimeUnit.SECONDS).order().getOrderId()).isEqualTo(42L);
+        assertThat(calls).hasValue(0);
+    }
+
+    private IdempotencyService service(Duration waitTimeout) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+        return new IdempotencyService(repository, transactionTemplate, new ObjectMapper().findAndRegisterModules(),
+                Duration.ofHours(24), Duration.ofMinutes(10), 100, waitTimeout, Duration.ofHours(1));
+    }
+
+    private Supplier<Order> counting(long orderId) {
+        return () -> {
+            calls.incrementAndGet();
+            return order(orderId);
+        };
+    }
+
+    private static Order order(long orderId) {
+        return Order.builder().orderId(orderId).userId(1L).status("CREATED").totalAmount(10.0).build();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
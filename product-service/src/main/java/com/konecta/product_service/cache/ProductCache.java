@@ -0,0 +1,203 @@
+package com.konecta.product_service.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.konecta.product_service.model.Product;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Bounded read-through cache in front of product lookups by id. Found products live for
+ * {@code products.cache.ttl}; ids that do not exist are remembered for the shorter
+ * {@code products.cache.negative-ttl} so repeated misses do not reach MySQL either.
+ */
+@Component
+public class ProductCache implements MeterBinder {
+
+    private record Entry(Product product, long expiresAt) {
+    }
+
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final long negativeTtlMillis;
+    private final LinkedHashMap<Long, Entry> entries;
+    // Bumped on every invalidation so a load that raced with a write is not cached
+    private final AtomicLong generation = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder sizeEvictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+    private Timer loadTimer;
+
+    public ProductCache(@Value("${products.cache.max-entries:10000}") int maxEntries,
+                        @Value("${products.cache.ttl:60s}") Duration ttl,
+                        @Value("${products.cache.negative-ttl:10s}") Duration negativeTtl) {
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttl.toMillis();
+        this.negativeTtlMillis = negativeTtl.toMillis();
+        this.entries = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                if (size() > ProductCache.this.maxEntries) {
+                    sizeEvictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached product, or loads it with {@code loader} and caches the outcome, including absence.
+     */
+    public Optional<Product> get(Long id, Function<Long, Optional<Product>> loader) {
+        long now = System.currentTimeMillis();
+        long stamp;
+        synchronized (this) {
+            Entry entry = entries.get(id);
+            if (entry != null) {
+                if (entry.expiresAt() > now) {
+                    hits.increment();
+                    return Optional.ofNullable(entry.product());
+                }
+                entries.remove(id);
+                expirations.increment();
+            }
+            stamp = generation.get();
+        }
+
+        misses.increment();
+        long started = System.nanoTime();
+        Optional<Product> loaded = loader.apply(id);
+        if (loadTimer != null) {
+            loadTimer.record(Duration.ofNanos(System.nanoTime() - started));
+        }
+
+        Product copy = loaded.map(ProductCache::copy).orElse(null);
+        synchronized (this) {
+            if (generation.get() == stamp) {
+                long ttl = copy != null ? ttlMillis : negativeTtlMillis;
+                entries.put(id, new Entry(copy, System.currentTimeMillis() + ttl));
+            }
+        }
+        return Optional.ofNullable(copy);
+    }
+
+    /**
+     * Resolves many ids at once: hits come from the cache and every miss is loaded by one
+     * {@code loader} call. Ids the loader does not return are cached as absent.
+     */
+    public Map<Long, Optional<Product>> getAll(Collection<Long> ids,
+                                               Function<Collection<Long>, Map<Long, Product>> loader) {
+        Map<Long, Optional<Product>> result = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        long now = System.currentTimeMillis();
+        long stamp;
+        synchronized (this) {
+            for (Long id : ids) {
+                Entry entry = entries.get(id);
+                if (entry != null && entry.expiresAt() > now) {
+                    hits.increment();
+                    result.put(id, Optional.ofNullable(entry.product()));
+                    continue;
+                }
+                if (entry != null) {
+                    entries.remove(id);
+                    expirations.increment();
+                }
+                misses.increment();
+                missing.add(id);
+            }
+            stamp = generation.get();
+        }
+        if (missing.isEmpty()) {
+            return result;
+        }
+
+        long started = System.nanoTime();
+        Map<Long, Product> loaded = loader.apply(missing);
+        if (loadTimer != null) {
+            loadTimer.record(Duration.ofNanos(System.nanoTime() - started));
+        }
+
+        synchronized (this) {
+            boolean cacheable = generation.get() == stamp;
+            long loadedAt = System.currentTimeMillis();
+            for (Long id : missing) {
+                Product product = loaded.get(id);
+                Product copy = product == null ? null : copy(product);
+                if (cacheable) {
+                    entries.put(id, new Entry(copy, loadedAt + (copy != null ? ttlMillis : negativeTtlMillis)));
+                }
+                result.put(id, Optional.ofNullable(copy));
+            }
+        }
+        return result;
+    }
+
+    public synchronized void invalidate(Long id) {
+        generation.incrementAndGet();
+        if (entries.remove(id) != null) {
+            invalidations.increment();
+        }
+    }
+
+    public synchronized void clear() {
+        generation.incrementAndGet();
+        invalidations.add(entries.size());
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public double hitRatio() {
+        long h = hits.sum();
+        long total = h + misses.sum();
+        return total == 0 ? 0 : (double) h / total;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("product.cache.hits", hits, LongAdder::sum).register(registry);
+        FunctionCounter.builder("product.cache.misses", misses, LongAdder::sum).register(registry);
+        FunctionCounter.builder("product.cache.evictions", sizeEvictions, LongAdder::sum).tag("cause", "size").register(registry);
+        FunctionCounter.builder("product.cache.evictions", expirations, LongAdder::sum).tag("cause", "expired").register(registry);
+        FunctionCounter.builder("product.cache.evictions", invalidations, LongAdder::sum).tag("cause", "invalidated").register(registry);
+        Gauge.builder("product.cache.size", this, ProductCache::size).register(registry);
+        Gauge.builder("product.cache.hit.ratio", this, ProductCache::hitRatio).register(registry);
+        loadTimer = Timer.builder("product.cache.load").register(registry);
+    }
+
+    // Cached instances are shared between requests, so never hand out the JPA-managed entity itself
+    private static Product copy(Product product) {
+        return Product.builder()
+                .id(product.getId())
+                .name(product.getName())
+                .description(product.getDescription())
+                .price(product.getPrice())
+                .stock(product.getStock())
+                .category(product.getCategory())
+                .version(product.getVersion())
+                .build();
+    }
+}
@@ -1,22 +1,48 @@
 package com.konecta.product_service.controller;
 
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.konecta.product_service.dto.BulkPriceUpdate;
+import com.konecta.product_service.dto.ProductBatch;
+import com.konecta.product_service.dto.ProductPage;
+import com.konecta.product_service.importer.ProductImportReader;
+import com.konecta.product_service.importer.ProductImportService;
 import com.konecta.product_service.model.Product;
+import com.konecta.product_service.recommend.RelatedProduct;
+import com.konecta.product_service.search.SearchResult;
+import com.konecta.product_service.service.ProductExportService;
+import com.konecta.product_service.trending.TrendingResult;
 import com.konecta.product_service.service.ProductService;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/products")
 public class ProductController {
 
     private final ProductService productService;
+    private final ProductExportService exportService;
+    private final ProductImportService importService;
+    private final ObjectMapper objectMapper;
 
-    public ProductController(ProductService productService) {
+    public ProductController(ProductService productService, ProductExportService exportService,
+                             ProductImportService importService, ObjectMapper objectMapper) {
         this.productService = productService;
+        this.exportService = exportService;
+        this.importService = importService;
+        this.objectMapper = objectMapper;
     }
 
     @GetMapping
@@ -24,16 +50,124 @@ public class ProductController {
         return productService.getAllProducts();
     }
 
+    /**
+     * Keyset-paginated listing: pass the returned {@code nextCursor} back as {@code cursor} for the next page.
+     */
+    @GetMapping("/page")
+    public ProductPage<?> getProductPage(@RequestParam(required = false) String category,
+                                         @RequestParam(defaultValue = "id") String sort,
+                                         @RequestParam(defaultValue = "asc") String order,
+                                         @RequestParam(required = false) Integer size,
+                                         @RequestParam(required = false) String cursor,
+                                         @RequestParam(defaultValue = "full") String fields) {
+        return productService.getProductPage(category, sort, order, size, cursor, "summary".equalsIgnoreCase(fields));
+    }
+
+    @GetMapping("/search")
+    public SearchResult search(@RequestParam("q") String query,
+                               @RequestParam(required = false) String category,
+                               @RequestParam(required = false) Integer limit) {
+        return productService.search(query, category, limit);
+    }
+
+    @GetMapping("/suggest")
+    public List<String> suggest(@RequestParam("q") String prefix,
+                                @RequestParam(defaultValue = "10") int limit) {
+        return productService.suggest(prefix, limit);
+    }
+
+    /**
+     * Multi-get, e.g. {@code /api/products/batch?ids=3,1,7}; ids that do not exist are listed in {@code missing}.
+     */
+    @GetMapping("/batch")
+    public ProductBatch getProductsByIds(@RequestParam List<Long> ids) {
+        return productService.getProductsByIds(ids);
+    }
+
+    /**
+     * Streams the whole catalog (or one category) as NDJSON or CSV; gzip-compressed when the client accepts it.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam(defaultValue = "ndjson") String format,
+                                                        @RequestParam(required = false) String category,
+                                                        @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        ProductExportService.Format exportFormat = ProductExportService.Format.of(format);
+        return stream(exportFormat.contentType(), "products." + exportFormat.extension(), acceptEncoding,
+                out -> exportService.export(exportFormat, category, out));
+    }
+
+    /**
+     * Full catalog state for bootstrapping a local replica before consuming {@code product.events}.
+     */
+    @GetMapping("/snapshot")
+    public ResponseEntity<StreamingResponseBody> snapshot(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return stream("application/x-ndjson", "products-snapshot.ndjson", acceptEncoding, exportService::snapshot);
+    }
+
+    private static ResponseEntity<StreamingResponseBody> stream(String contentType, String fileName, String acceptEncoding,
+                                                                StreamingResponseBody body) {
+        boolean gzip = acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(contentType))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"");
+        if (!gzip) {
+            return response.body(body);
+        }
+        return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(out -> {
+            try (GZIPOutputStream compressed = new GZIPOutputStream(out, 64 * 1024)) {
+                body.writeTo(compressed);
+            }
+        });
+    }
+
     @GetMapping("/{id}")
     public Product getProductById(@PathVariable Long id) {
         return productService.getProductById(id);
     }
 
+    /**
+     * Best sellers over the last 5m, 1h or 24h, optionally within one category, with the sketch error bounds.
+     */
+    @GetMapping("/trending")
+    public TrendingResult trending(@RequestParam(defaultValue = "1h") String window,
+                                   @RequestParam(required = false) String category,
+                                   @RequestParam(defaultValue = "10") int limit) {
+        return productService.trending(window, category, limit);
+    }
+
+    /**
+     * Products most often bought together with {@code id}, strongest first; hydrate them with {@code /batch}.
+     */
+    @GetMapping("/{id}/related")
+    public List<RelatedProduct> related(@PathVariable Long id, @RequestParam(defaultValue = "10") int limit) {
+        return productService.related(id, limit);
+    }
+
     @PostMapping
     public Product createProduct(@RequestBody Product product) {
         return productService.createProduct(product);
     }
 
+    /**
+     * Upserts products streamed as NDJSON ({@code application/x-ndjson}) or CSV ({@code text/csv}).
+     * Rows with an id update that product; rows without one are created. Existing stock is only
+     * replaced when {@code overwriteStock} is set, since reservations decrement it concurrently.
+     */
+    @PostMapping(value = "/import", consumes = {"application/x-ndjson", "text/csv"})
+    public ProductImportService.Report importProducts(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                                      @RequestParam(defaultValue = "false") boolean overwriteStock,
+                                                      InputStream body) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8), 64 * 1024);
+        return importService.importProducts(new ProductImportReader(reader, ProductImportReader.Format.of(contentType), objectMapper),
+                overwriteStock);
+    }
+
+    @PatchMapping("/prices")
+    public BulkPriceUpdate.Result updatePrices(@RequestBody BulkPriceUpdate request) {
+        return productService.updatePrices(request);
+    }
+
     @PutMapping("/{id}")
     public Product updateProduct(@PathVariable Long id, @RequestBody Product product) {
         return productService.updateProduct(id, product);
@@ -44,4 +178,9 @@ public class ProductController {
         productService.deleteProduct(id);
         return ResponseEntity.ok().build();
     }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<?> badRequest(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
 }
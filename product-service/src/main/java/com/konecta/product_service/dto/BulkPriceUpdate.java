@@ -0,0 +1,14 @@
+package com.konecta.product_service.dto;
+
+import java.util.List;
+
+/**
+ * Reprices every product in {@code category}, or the products in {@code ids}, with one statement.
+ * Either {@code percent} adjusts current prices (e.g. {@code -15} for a 15% discount) or {@code price}
+ * sets them outright.
+ */
+public record BulkPriceUpdate(String category, List<Long> ids, Double percent, Double price) {
+
+    public record Result(int updated) {
+    }
+}
@@ -0,0 +1,11 @@
+package com.konecta.product_service.dto;
+
+import com.konecta.product_service.model.Product;
+
+import java.util.List;
+
+/**
+ * Result of a multi-get: found products in request order, plus the requested ids that do not exist.
+ */
+public record ProductBatch(List<Product> products, List<Long> missing) {
+}
@@ -0,0 +1,9 @@
+package com.konecta.product_service.dto;
+
+import java.util.List;
+
+/**
+ * One page of a keyset listing. {@code nextCursor} is {@code null} on the last page.
+ */
+public record ProductPage<T>(List<T> items, String nextCursor) {
+}
@@ -0,0 +1,7 @@
+package com.konecta.product_service.dto;
+
+/**
+ * List-view projection of a product; leaves out {@code description}, which dominates row size.
+ */
+public record ProductSummary(Long id, String name, Double price, Integer stock, String category) {
+}
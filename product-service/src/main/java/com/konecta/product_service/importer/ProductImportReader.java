@@ -0,0 +1,184 @@
+package com.konecta.product_service.importer;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Streams products from an NDJSON or CSV body one line at a time, so the upload is never held in
+ * memory. CSV bodies must start with a header naming the
+ * {@code [id,]name,price[,description,stock,category]} columns in any order.
+ */
+public class ProductImportReader {
+
+    public enum Format {
+        CSV, NDJSON;
+
+        public static Format of(String contentType) {
+            return contentType != null && contentType.toLowerCase(Locale.ROOT).startsWith("text/csv") ? CSV : NDJSON;
+        }
+    }
+
+    /** Outcome of reading one line: either a row or the reason it could not be parsed. */
+    public record Result(long line, ProductImportRow row, String error) {
+    }
+
+    private final BufferedReader reader;
+    private final Format format;
+    private final ObjectMapper objectMapper;
+    private Map<String, Integer> columns;
+    private long line;
+
+    public ProductImportReader(BufferedReader reader, Format format, ObjectMapper objectMapper) throws IOException {
+        this.reader = reader;
+        this.format = format;
+        this.objectMapper = objectMapper;
+        if (format == Format.CSV) {
+            readHeader();
+        }
+    }
+
+    /**
+     * Returns the next non-blank line, or {@code null} at end of input.
+     */
+    public Result next() throws IOException {
+        String text;
+        do {
+            text = reader.readLine();
+            if (text == null) {
+                return null;
+            }
+            line++;
+        } while (text.isBlank());
+
+        try {
+            ProductImportRow row = format == Format.CSV ? parseCsv(text) : parseJson(text);
+            return new Result(line, row, null);
+        } catch (IllegalArgumentException | IOException e) {
+            return new Result(line, null, e.getMessage());
+        }
+    }
+
+    private void readHeader() throws IOException {
+        String header = reader.readLine();
+        line++;
+        if (header == null) {
+            throw new IllegalArgumentException("CSV body is empty");
+        }
+        columns = new HashMap<>();
+        List<String> names = splitCsv(header);
+        for (int i = 0; i < names.size(); i++) {
+            columns.put(names.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        if (!columns.containsKey("name") || !columns.containsKey("price")) {
+            throw new IllegalArgumentException("CSV header must contain name and price columns");
+        }
+    }
+
+    private ProductImportRow parseCsv(String text) {
+        List<String> fields = splitCsv(text);
+        return row(csvField(fields, "id"), csvField(fields, "name"), csvField(fields, "description"),
+                csvField(fields, "price"), csvField(fields, "stock"), csvField(fields, "category"));
+    }
+
+    private String csvField(List<String> fields, String column) {
+        Integer index = columns.get(column);
+        return index == null || index >= fields.size() ? null : fields.get(index);
+    }
+
+    private ProductImportRow parseJson(String text) throws IOException {
+        JsonNode node = objectMapper.readTree(text);
+        if (node == null || !node.isObject()) {
+            throw new IllegalArgumentException("line is not a JSON object");
+        }
+        return row(jsonField(node, "id"), jsonField(node, "name"), jsonField(node, "description"),
+                jsonField(node, "price"), jsonField(node, "stock"), jsonField(node, "category"));
+    }
+
+    private static String jsonField(JsonNode node, String name) {
+        JsonNode value = node.get(name);
+        return value == null || value.isNull() ? null : value.asText();
+    }
+
+    private ProductImportRow row(String id, String name, String description, String price, String stock,
+                                 String category) {
+        name = trimToNull(name);
+        if (name == null) {
+            throw new IllegalArgumentException("name is required");
+        }
+        Double parsedPrice = parse(price, "price", Double::valueOf);
+        if (parsedPrice == null || parsedPrice < 0 || parsedPrice.isNaN() || parsedPrice.isInfinite()) {
+            throw new IllegalArgumentException("price must be a non-negative number");
+        }
+        Integer parsedStock = parse(stock, "stock", Integer::valueOf);
+        if (parsedStock != null && parsedStock < 0) {
+            throw new IllegalArgumentException("stock must not be negative");
+        }
+        return new ProductImportRow(line, parse(id, "id", Long::valueOf), name, trimToNull(description), parsedPrice,
+                parsedStock, trimToNull(category));
+    }
+
+    private static <T> T parse(String value, String field, Function<String, T> parser) {
+        value = trimToNull(value);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return parser.apply(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(field + " is not a number: " + value);
+        }
+    }
+
+    private static String trimToNull(String value) {
+        if (value == null) {
+            return null;
+        }
+        String trimmed = value.trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+
+    /**
+     * Splits one CSV record, honouring double-quoted fields and doubled quotes inside them.
+     */
+    static List<String> splitCsv(String text) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < text.length() && text.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
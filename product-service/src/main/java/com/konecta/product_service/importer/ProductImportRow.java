@@ -0,0 +1,9 @@
+package com.konecta.product_service.importer;
+
+/**
+ * One product read from an import body; {@code line} is the 1-based source line used in reject reports.
+ * A {@code null} id means a new product; any other {@code null} field leaves the stored value unchanged.
+ */
+public record ProductImportRow(long line, Long id, String name, String description, Double price, Integer stock,
+                               String category) {
+}
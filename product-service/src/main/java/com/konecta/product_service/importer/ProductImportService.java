@@ -0,0 +1,199 @@
+package com.konecta.product_service.importer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.konecta.product_service.service.ProductService;
+
+import java.io.IOException;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Bulk-upserts products in chunks. Each chunk is written with JDBC batches, which the driver
+ * rewrites into multi-row {@code INSERT ... ON DUPLICATE KEY UPDATE} statements: rows with an id
+ * update that product (or create it under that id), rows without one get the next auto-increment id.
+ * Fields a row does not carry keep their stored value, and existing stock is left to reservations
+ * unless the caller asks to overwrite it. Caches, the search index and the other replicas are
+ * refreshed once per chunk.
+ */
+@Service
+public class ProductImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductImportService.class);
+
+    private static final String UPSERT_SQL = "INSERT INTO products (id, name, description, price, stock, category, version) "
+            + "VALUES (?, ?, ?, ?, ?, ?, 0) ON DUPLICATE KEY UPDATE name = VALUES(name), "
+            + "description = COALESCE(VALUES(description), description), price = VALUES(price), "
+            + "category = COALESCE(VALUES(category), category), version = version + 1";
+    // Only used for rows that carry stock when the caller asked to overwrite it
+    private static final String UPSERT_WITH_STOCK_SQL = "INSERT INTO products (id, name, description, price, stock, category, version) "
+            + "VALUES (?, ?, ?, ?, ?, ?, 0) ON DUPLICATE KEY UPDATE name = VALUES(name), "
+            + "description = COALESCE(VALUES(description), description), price = VALUES(price), stock = VALUES(stock), "
+            + "category = COALESCE(VALUES(category), category), version = version + 1";
+    private static final int MAX_REPORTED_REJECTS = 100;
+
+    public record Reject(long line, String reason) {
+    }
+
+    public record Report(long read, long written, long rejected, List<Reject> rejects, long elapsedMillis) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ProductService productService;
+    private final int batchSize;
+
+    public ProductImportService(JdbcTemplate jdbcTemplate,
+                                TransactionTemplate transactionTemplate,
+                                ProductService productService,
+                                @Value("${products.import.batch-size:1000}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.productService = productService;
+        this.batchSize = batchSize;
+    }
+
+    public Report importProducts(ProductImportReader reader, boolean overwriteStock) throws IOException {
+        long started = System.currentTimeMillis();
+        Counters counters = new Counters();
+
+        List<ProductImportRow> chunk = new ArrayList<>(batchSize);
+        ProductImportReader.Result result;
+        while ((result = reader.next()) != null) {
+            counters.read++;
+            if (result.row() == null) {
+                reject(counters, result.line(), result.error());
+                continue;
+            }
+            chunk.add(result.row());
+            if (chunk.size() == batchSize) {
+                importChunk(chunk, overwriteStock, counters);
+                chunk.clear();
+                logProgress(counters, started);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            importChunk(chunk, overwriteStock, counters);
+        }
+
+        Report report = new Report(counters.read, counters.written, counters.rejected, counters.rejects,
+                System.currentTimeMillis() - started);
+        log.info("Product import finished: read={} written={} rejected={} in {} ms",
+                report.read(), report.written(), report.rejected(), report.elapsedMillis());
+        return report;
+    }
+
+    private void importChunk(List<ProductImportRow> chunk, boolean overwriteStock, Counters counters) {
+        Set<Long> touched = new LinkedHashSet<>();
+        boolean inserts = false;
+        for (ProductImportRow row : chunk) {
+            if (row.id() == null) {
+                inserts = true;
+            } else {
+                touched.add(row.id());
+            }
+        }
+        // New rows get auto-increment ids above the current maximum; they are looked up after the write
+        long maxIdBefore = inserts ? jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM products", Long.class) : 0;
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> upsert(chunk, overwriteStock));
+            counters.written += chunk.size();
+        } catch (DataIntegrityViolationException e) {
+            // Isolate the offending rows instead of failing the whole chunk
+            for (ProductImportRow row : chunk) {
+                try {
+                    upsert(List.of(row), overwriteStock);
+                    counters.written++;
+                } catch (DataIntegrityViolationException rowError) {
+                    touched.remove(row.id());
+                    reject(counters, row.line(), rootMessage(rowError));
+                }
+            }
+        }
+
+        if (inserts) {
+            touched.addAll(jdbcTemplate.queryForList("SELECT id FROM products WHERE id > ? ORDER BY id", Long.class, maxIdBefore));
+        }
+        productService.refreshProducts(touched);
+    }
+
+    private void upsert(List<ProductImportRow> rows, boolean overwriteStock) {
+        if (!overwriteStock) {
+            batchUpsert(UPSERT_SQL, rows);
+            return;
+        }
+        List<ProductImportRow> withStock = new ArrayList<>();
+        List<ProductImportRow> withoutStock = new ArrayList<>();
+        for (ProductImportRow row : rows) {
+            (row.stock() == null ? withoutStock : withStock).add(row);
+        }
+        batchUpsert(UPSERT_SQL, withoutStock);
+        batchUpsert(UPSERT_WITH_STOCK_SQL, withStock);
+    }
+
+    private void batchUpsert(String sql, List<ProductImportRow> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(sql, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                ProductImportRow row = rows.get(i);
+                if (row.id() == null) {
+                    ps.setNull(1, Types.BIGINT);
+                } else {
+                    ps.setLong(1, row.id());
+                }
+                ps.setString(2, row.name());
+                ps.setString(3, row.description());
+                ps.setDouble(4, row.price());
+                // Only new products take this value unless the statement overwrites stock
+                ps.setInt(5, row.stock() == null ? 0 : row.stock());
+                ps.setString(6, row.category());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return rows.size();
+            }
+        });
+    }
+
+    private static String rootMessage(DataIntegrityViolationException e) {
+        Throwable cause = e.getMostSpecificCause();
+        return cause.getMessage() == null ? cause.getClass().getSimpleName() : cause.getMessage();
+    }
+
+    private static void reject(Counters counters, long line, String reason) {
+        counters.rejected++;
+        if (counters.rejects.size() < MAX_REPORTED_REJECTS) {
+            counters.rejects.add(new Reject(line, reason));
+        }
+    }
+
+    private void logProgress(Counters counters, long started) {
+        long elapsed = Math.max(1, System.currentTimeMillis() - started);
+        log.info("Product import progress: read={} written={} rejected={} ({} rows/s)",
+                counters.read, counters.written, counters.rejected, counters.read * 1000 / elapsed);
+    }
+
+    private static final class Counters {
+        long read;
+        long written;
+        long rejected;
+        final List<Reject> rejects = new ArrayList<>();
+    }
+}
@@ -0,0 +1,56 @@
+package com.konecta.product_service.messaging;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.stereotype.Component;
+
+import com.konecta.product_service.recommend.CoPurchaseEngine;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+@Component
+public class CoPurchaseListener {
+    private static final Logger log = LoggerFactory.getLogger(CoPurchaseListener.class);
+
+    private final CoPurchaseEngine engine;
+    private final ObjectMapper objectMapper;
+
+    public CoPurchaseListener(CoPurchaseEngine engine, ObjectMapper objectMapper) {
+        this.engine = engine;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Feeds the distinct products of each created order to the co-purchase engine, a batch at a time.
+     */
+    @RabbitListener(queues = "#{copurchaseQueue.name}", containerFactory = "batchListenerContainerFactory")
+    public void onOrderCreated(List<Message> messages) {
+        List<long[]> orders = new ArrayList<>(messages.size());
+        for (Message message : messages) {
+            try {
+                OrderCreatedEvent event = objectMapper.readValue(message.getBody(), OrderCreatedEvent.class);
+                if (event.getItems() == null) {
+                    continue;
+                }
+                long[] products = event.getItems().stream()
+                        .filter(item -> item.getProductId() != null && item.getProductId() > 0)
+                        .mapToLong(OrderCreatedEvent.Item::getProductId)
+                        .distinct()
+                        .toArray();
+                if (products.length > 1) {
+                    orders.add(products);
+                }
+            } catch (IOException e) {
+                log.warn("[ProductService] Dropping malformed OrderCreated event: {}", e.getMessage());
+            }
+        }
+        if (!orders.isEmpty()) {
+            engine.record(orders);
+        }
+    }
+}
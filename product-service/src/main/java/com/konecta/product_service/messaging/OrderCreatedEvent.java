@@ -0,0 +1,29 @@
+package com.konecta.product_service.messaging;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Payload of {@code order.created} as published by order-service.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderCreatedEvent {
+    private Long orderId;
+    private Long userId;
+    private Double totalAmount;
+    private List<Item> items;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Item {
+        private Long productId;
+        private Integer quantity;
+        private Double price;
+    }
+}
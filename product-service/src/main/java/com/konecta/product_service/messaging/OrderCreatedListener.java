@@ -1,17 +1,125 @@
 package com.konecta.product_service.messaging;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageBuilder;
+import org.springframework.amqp.core.MessageProperties;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.stereotype.Component;
 
+import com.konecta.product_service.service.StockReservationService;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
 @Component
 public class OrderCreatedListener {
     private static final Logger log = LoggerFactory.getLogger(OrderCreatedListener.class);
 
-    @RabbitListener(queues = OrderEventsConfig.ORDER_CREATED_QUEUE)
-    public void onOrderCreated(Object message) {
-        // TODO: map the message to a DTO and reserve stock
-        log.info("[ProductService] Received OrderCreated event: {}", message);
+    private final StockReservationService reservationService;
+    private final RabbitTemplate rabbitTemplate;
+    private final ObjectMapper objectMapper;
+
+    public OrderCreatedListener(StockReservationService reservationService, RabbitTemplate rabbitTemplate,
+                                ObjectMapper objectMapper) {
+        this.reservationService = reservationService;
+        this.rabbitTemplate = rabbitTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Receives {@code order.created} events in batches (see {@code OrderEventsConfig}) and reserves
+     * stock for the whole batch at once. If the batch fails, its orders are retried one at a time so
+     * a single bad order cannot hold up the rest; orders that still fail are moved to
+     * {@code order.created.dlq} with the error in {@code x-exception-message}.
+     */
+    @RabbitListener(queues = OrderEventsConfig.ORDER_CREATED_QUEUE, containerFactory = "batchListenerContainerFactory")
+    public void onOrderCreated(List<Message> messages) {
+        Map<Long, Message> messagesByOrder = new HashMap<>();
+        List<OrderCreatedEvent> events = new ArrayList<>(messages.size());
+        for (Message message : messages) {
+            try {
+                OrderCreatedEvent event = objectMapper.readValue(message.getBody(), OrderCreatedEvent.class);
+                if (event.getOrderId() == null) {
+                    log.warn("[ProductService] Dropping OrderCreated event without orderId");
+                    continue;
+                }
+                events.add(event);
+                messagesByOrder.putIfAbsent(event.getOrderId(), message);
+            } catch (IOException e) {
+                log.warn("[ProductService] Dropping malformed OrderCreated event: {}", e.getMessage());
+            }
+        }
+        if (events.isEmpty()) {
+            return;
+        }
+
+        List<StockReservationResult> results;
+        try {
+            results = reservationService.reserve(events);
+        } catch (RuntimeException e) {
+            log.warn("[ProductService] Reserving a batch of {} order(s) failed, retrying one at a time: {}",
+                    events.size(), e.getMessage());
+            results = reserveOneByOne(events, messagesByOrder);
+        }
+        int reserved = 0;
+        for (StockReservationResult result : results) {
+            if (result.reserved()) {
+                reserved++;
+            }
+            publish(result);
+        }
+        log.info("[ProductService] Processed {} OrderCreated event(s): {} reserved, {} rejected",
+                results.size(), reserved, results.size() - reserved);
+    }
+
+    // Each order gets its own transaction; stored outcomes keep orders that already went through from re-reserving
+    private List<StockReservationResult> reserveOneByOne(List<OrderCreatedEvent> events, Map<Long, Message> messagesByOrder) {
+        List<StockReservationResult> results = new ArrayList<>(events.size());
+        Set<Long> seen = new HashSet<>();
+        for (OrderCreatedEvent event : events) {
+            if (!seen.add(event.getOrderId())) {
+                continue;
+            }
+            try {
+                results.addAll(reservationService.reserve(List.of(event)));
+            } catch (RuntimeException e) {
+                log.error("[ProductService] Reserving stock for order {} failed, moving it to {}",
+                        event.getOrderId(), OrderEventsConfig.ORDER_CREATED_DLQ, e);
+                deadLetter(messagesByOrder.get(event.getOrderId()), e);
+            }
+        }
+        return results;
+    }
+
+    // A failure to publish here propagates, so the batch is redelivered rather than losing the order
+    private void deadLetter(Message message, RuntimeException cause) {
+        Message failed = MessageBuilder.fromMessage(message)
+                .setHeader("x-exception-message", String.valueOf(cause.getMessage()))
+                .build();
+        rabbitTemplate.send("", OrderEventsConfig.ORDER_CREATED_DLQ, failed);
+    }
+
+    private void publish(StockReservationResult result) {
+        String routingKey = result.reserved()
+                ? OrderEventsConfig.STOCK_RESERVED_ROUTING_KEY
+                : OrderEventsConfig.STOCK_REJECTED_ROUTING_KEY;
+        try {
+            Message message = MessageBuilder.withBody(objectMapper.writeValueAsBytes(result))
+                    .setContentType(MessageProperties.CONTENT_TYPE_JSON)
+                    .build();
+            rabbitTemplate.send(OrderEventsConfig.EXCHANGE, routingKey, message);
+        } catch (IOException | AmqpException e) {
+            log.error("[ProductService] Could not publish {} for order {}", routingKey, result.orderId(), e);
+        }
     }
 }
@@ -1,17 +1,27 @@
 package com.konecta.product_service.messaging;
 
+import org.springframework.amqp.core.AnonymousQueue;
 import org.springframework.amqp.core.Binding;
 import org.springframework.amqp.core.BindingBuilder;
 import org.springframework.amqp.core.Queue;
 import org.springframework.amqp.core.TopicExchange;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.amqp.SimpleRabbitListenerContainerFactoryConfigurer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Duration;
+
 @Configuration
 public class OrderEventsConfig {
     public static final String EXCHANGE = "order.events";
     public static final String ORDER_CREATED_ROUTING_KEY = "order.created";
     public static final String ORDER_CREATED_QUEUE = "order.created.queue";
+    public static final String ORDER_CREATED_DLQ = "order.created.dlq";
+    public static final String STOCK_RESERVED_ROUTING_KEY = "order.stock.reserved";
+    public static final String STOCK_REJECTED_ROUTING_KEY = "order.stock.rejected";
 
     @Bean
     public TopicExchange orderEventsExchange() {
@@ -23,8 +33,56 @@ public class OrderEventsConfig {
         return new Queue(ORDER_CREATED_QUEUE, true);
     }
 
+    // Orders whose reservation kept failing; published here directly by OrderCreatedListener
+    @Bean
+    public Queue orderCreatedDeadLetterQueue() {
+        return new Queue(ORDER_CREATED_DLQ, true);
+    }
+
     @Bean
     public Binding orderCreatedBinding(Queue orderCreatedQueue, TopicExchange orderEventsExchange) {
         return BindingBuilder.bind(orderCreatedQueue).to(orderEventsExchange).with(ORDER_CREATED_ROUTING_KEY);
     }
+
+    // One auto-deleted queue per instance: each replica keeps its own matrix and must see every order
+    @Bean
+    public Queue copurchaseQueue() {
+        return new AnonymousQueue();
+    }
+
+    @Bean
+    public Binding copurchaseBinding(Queue copurchaseQueue, TopicExchange orderEventsExchange) {
+        return BindingBuilder.bind(copurchaseQueue).to(orderEventsExchange).with(ORDER_CREATED_ROUTING_KEY);
+    }
+
+    // Per instance as well, so every replica's leaderboards count all sales
+    @Bean
+    public Queue trendingQueue() {
+        return new AnonymousQueue();
+    }
+
+    @Bean
+    public Binding trendingBinding(Queue trendingQueue, TopicExchange orderEventsExchange) {
+        return BindingBuilder.bind(trendingQueue).to(orderEventsExchange).with(ORDER_CREATED_ROUTING_KEY);
+    }
+
+    /**
+     * Delivers up to {@code batch-size} messages at a time, or whatever arrived within
+     * {@code batch-window}, so reservations for a hot product are applied together.
+     */
+    @Bean
+    public SimpleRabbitListenerContainerFactory batchListenerContainerFactory(
+            SimpleRabbitListenerContainerFactoryConfigurer configurer,
+            ConnectionFactory connectionFactory,
+            @Value("${stock.reservation.batch-size:200}") int batchSize,
+            @Value("${stock.reservation.batch-window:50ms}") Duration batchWindow) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        configurer.configure(factory, connectionFactory);
+        factory.setBatchListener(true);
+        factory.setConsumerBatchEnabled(true);
+        factory.setBatchSize(batchSize);
+        factory.setReceiveTimeout(batchWindow.toMillis());
+        factory.setPrefetchCount(batchSize);
+        return factory;
+    }
 }
@@ -0,0 +1,99 @@
+package com.konecta.product_service.messaging;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.stereotype.Component;
+
+import com.konecta.product_service.cache.ProductCache;
+import com.konecta.product_service.model.Product;
+import com.konecta.product_service.repository.ProductRepository;
+import com.konecta.product_service.search.ProductSearchIndex;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Tells the other product-service replicas that a product changed so they drop it from their
+ * {@link ProductCache} and re-index it. Messages are {@code <instanceId>:<productId>[,<productId>...]};
+ * an instance ignores its own messages because it already applied the change locally.
+ */
+@Component
+public class ProductChangeBroadcaster {
+    private static final Logger log = LoggerFactory.getLogger(ProductChangeBroadcaster.class);
+
+    private static final int IDS_PER_MESSAGE = 500;
+
+    private final String instanceId = UUID.randomUUID().toString();
+    private final RabbitTemplate rabbitTemplate;
+    private final ProductCache productCache;
+    private final ProductSearchIndex searchIndex;
+    private final ProductRepository productRepository;
+
+    public ProductChangeBroadcaster(RabbitTemplate rabbitTemplate, ProductCache productCache,
+                                    ProductSearchIndex searchIndex, ProductRepository productRepository) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.productCache = productCache;
+        this.searchIndex = searchIndex;
+        this.productRepository = productRepository;
+    }
+
+    public void productChanged(Long productId) {
+        send(String.valueOf(productId));
+    }
+
+    /**
+     * Broadcasts a bulk change as a few messages of up to {@value #IDS_PER_MESSAGE} ids each.
+     */
+    public void productsChanged(List<Long> productIds) {
+        for (int from = 0; from < productIds.size(); from += IDS_PER_MESSAGE) {
+            List<Long> slice = productIds.subList(from, Math.min(productIds.size(), from + IDS_PER_MESSAGE));
+            send(slice.stream().map(String::valueOf).collect(Collectors.joining(",")));
+        }
+    }
+
+    private void send(String productIds) {
+        try {
+            rabbitTemplate.convertAndSend(ProductChangeEventsConfig.EXCHANGE, "", instanceId + ":" + productIds);
+        } catch (AmqpException e) {
+            // Other replicas converge once their cache entries expire
+            log.warn("Could not broadcast change of products {}: {}", productIds, e.getMessage());
+        }
+    }
+
+    @RabbitListener(queues = "#{productChangesQueue.name}")
+    public void onProductChanged(String message) {
+        int separator = message.lastIndexOf(':');
+        if (separator < 0 || message.substring(0, separator).equals(instanceId)) {
+            return;
+        }
+        List<Long> productIds = new ArrayList<>();
+        try {
+            for (String id : message.substring(separator + 1).split(",")) {
+                productIds.add(Long.valueOf(id));
+            }
+        } catch (NumberFormatException e) {
+            log.warn("Ignoring malformed product change message: {}", message);
+            return;
+        }
+        productIds.forEach(productCache::invalidate);
+        if (productIds.size() == 1) {
+            Long productId = productIds.get(0);
+            productRepository.findById(productId)
+                    .ifPresentOrElse(searchIndex::index, () -> searchIndex.remove(productId));
+            return;
+        }
+        Set<Long> gone = new HashSet<>(productIds);
+        for (Product product : productRepository.findAllById(productIds)) {
+            searchIndex.index(product);
+            gone.remove(product.getId());
+        }
+        gone.forEach(searchIndex::remove);
+    }
+}
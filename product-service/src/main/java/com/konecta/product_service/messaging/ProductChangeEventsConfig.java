@@ -0,0 +1,30 @@
+package com.konecta.product_service.messaging;
+
+import org.springframework.amqp.core.AnonymousQueue;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.FanoutExchange;
+import org.springframework.amqp.core.Queue;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class ProductChangeEventsConfig {
+    public static final String EXCHANGE = "product.changes";
+
+    @Bean
+    public FanoutExchange productChangesExchange() {
+        return new FanoutExchange(EXCHANGE, true, false);
+    }
+
+    // One auto-deleted queue per instance, so every replica sees every change
+    @Bean
+    public Queue productChangesQueue() {
+        return new AnonymousQueue();
+    }
+
+    @Bean
+    public Binding productChangesBinding(Queue productChangesQueue, FanoutExchange productChangesExchange) {
+        return BindingBuilder.bind(productChangesQueue).to(productChangesExchange);
+    }
+}
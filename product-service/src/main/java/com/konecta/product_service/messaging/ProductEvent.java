@@ -0,0 +1,36 @@
+package com.konecta.product_service.messaging;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import com.konecta.product_service.model.Product;
+
+/**
+ * Compact product change published on {@code product.events}. {@code version} increases with every
+ * write to the product, so a replica can drop events older than what it already holds. Stock events
+ * carry only the stock; delete events only the id and version. Descriptions are never sent.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ProductEvent(Type type, Long id, Long version, String name, Double price, Integer stock,
+                           String category, long timestamp) {
+
+    public enum Type {
+        CREATED, UPDATED, DELETED, STOCK;
+
+        public String routingKey() {
+            return "product." + name().toLowerCase();
+        }
+    }
+
+    public static ProductEvent of(Type type, Product product) {
+        return new ProductEvent(type, product.getId(), product.getVersion(), product.getName(), product.getPrice(),
+                product.getStock(), product.getCategory(), System.currentTimeMillis());
+    }
+
+    public static ProductEvent stock(Long id, Integer stock, Long version) {
+        return new ProductEvent(Type.STOCK, id, version, null, null, stock, null, System.currentTimeMillis());
+    }
+
+    public static ProductEvent deleted(Long id, Long version) {
+        return new ProductEvent(Type.DELETED, id, version, null, null, null, null, System.currentTimeMillis());
+    }
+}
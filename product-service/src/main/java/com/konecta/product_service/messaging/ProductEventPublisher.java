@@ -0,0 +1,58 @@
+package com.konecta.product_service.messaging;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageBuilder;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.stereotype.Component;
+
+import com.konecta.product_service.model.Product;
+
+/**
+ * Publishes {@link ProductEvent}s for downstream replicas. Called after the write has committed.
+ */
+@Component
+public class ProductEventPublisher {
+    private static final Logger log = LoggerFactory.getLogger(ProductEventPublisher.class);
+
+    private final RabbitTemplate rabbitTemplate;
+    private final ObjectMapper objectMapper;
+
+    public ProductEventPublisher(RabbitTemplate rabbitTemplate, ObjectMapper objectMapper) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    public void created(Product product) {
+        publish(ProductEvent.of(ProductEvent.Type.CREATED, product));
+    }
+
+    public void updated(Product product) {
+        publish(ProductEvent.of(ProductEvent.Type.UPDATED, product));
+    }
+
+    public void deleted(Long productId, Long version) {
+        publish(ProductEvent.deleted(productId, version));
+    }
+
+    public void stockChanged(Long productId, Integer stock, Long version) {
+        publish(ProductEvent.stock(productId, stock, version));
+    }
+
+    private void publish(ProductEvent event) {
+        try {
+            Message message = MessageBuilder.withBody(objectMapper.writeValueAsBytes(event))
+                    .setContentType(MessageProperties.CONTENT_TYPE_JSON)
+                    .build();
+            rabbitTemplate.send(ProductEventsConfig.EXCHANGE, event.type().routingKey(), message);
+        } catch (JsonProcessingException | AmqpException e) {
+            // Replicas catch up on their next snapshot
+            log.warn("Could not publish {} event for product {}: {}", event.type(), event.id(), e.getMessage());
+        }
+    }
+}
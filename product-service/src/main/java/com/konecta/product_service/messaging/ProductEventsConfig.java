@@ -0,0 +1,16 @@
+package com.konecta.product_service.messaging;
+
+import org.springframework.amqp.core.TopicExchange;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class ProductEventsConfig {
+    public static final String EXCHANGE = "product.events";
+
+    // Consumers bind their own queues, e.g. "product.*" for everything or "product.stock" for stock only
+    @Bean
+    public TopicExchange productEventsExchange() {
+        return new TopicExchange(EXCHANGE, true, false);
+    }
+}
@@ -0,0 +1,15 @@
+package com.konecta.product_service.messaging;
+
+/**
+ * Outcome of reserving stock for one order, published as {@code order.stock.reserved} or
+ * {@code order.stock.rejected} on {@code order.events}.
+ */
+public record StockReservationResult(Long orderId, String status, String reason) {
+
+    public static final String RESERVED = "RESERVED";
+    public static final String REJECTED = "REJECTED";
+
+    public boolean reserved() {
+        return RESERVED.equals(status);
+    }
+}
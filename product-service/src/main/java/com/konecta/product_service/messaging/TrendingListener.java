@@ -0,0 +1,58 @@
+package com.konecta.product_service.messaging;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.stereotype.Component;
+
+import com.konecta.product_service.search.ProductSearchIndex;
+import com.konecta.product_service.trending.Sale;
+import com.konecta.product_service.trending.TrendingTracker;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+@Component
+public class TrendingListener {
+    private static final Logger log = LoggerFactory.getLogger(TrendingListener.class);
+
+    private final TrendingTracker tracker;
+    private final ProductSearchIndex searchIndex;
+    private final ObjectMapper objectMapper;
+
+    public TrendingListener(TrendingTracker tracker, ProductSearchIndex searchIndex, ObjectMapper objectMapper) {
+        this.tracker = tracker;
+        this.searchIndex = searchIndex;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Counts the units of each created order towards the trending windows. Categories come from the
+     * in-memory search index, so this never queries the database.
+     */
+    @RabbitListener(queues = "#{trendingQueue.name}", containerFactory = "batchListenerContainerFactory")
+    public void onOrderCreated(List<Message> messages) {
+        List<Sale> sales = new ArrayList<>();
+        for (Message message : messages) {
+            try {
+                OrderCreatedEvent event = objectMapper.readValue(message.getBody(), OrderCreatedEvent.class);
+                if (event.getItems() == null) {
+                    continue;
+                }
+                for (OrderCreatedEvent.Item item : event.getItems()) {
+                    if (item.getProductId() != null && item.getQuantity() != null && item.getQuantity() > 0) {
+                        sales.add(new Sale(item.getProductId(), searchIndex.categoryOf(item.getProductId()), item.getQuantity()));
+                    }
+                }
+            } catch (IOException e) {
+                log.warn("[ProductService] Dropping malformed OrderCreated event: {}", e.getMessage());
+            }
+        }
+        if (!sales.isEmpty()) {
+            tracker.record(sales);
+        }
+    }
+}
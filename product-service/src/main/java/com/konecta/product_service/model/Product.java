@@ -4,7 +4,15 @@ import jakarta.persistence.*;
 import lombok.*;
 
 @Entity
-@Table(name = "products")
+@Table(
+        name = "products",
+        indexes = {
+                // Keyset listings: price order, and category filter in id or price order
+                @Index(name = "idx_products_price_id", columnList = "price, id"),
+                @Index(name = "idx_products_category_id", columnList = "category, id"),
+                @Index(name = "idx_products_category_price_id", columnList = "category, price, id")
+        }
+)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -21,4 +29,9 @@ public class Product {
     private Double price;
     private Integer stock;
     private String category;
+
+    // Bumped on every write, including the JDBC stock and bulk paths; orders product events for replicas
+    @Version
+    @Column(nullable = false)
+    private Long version;
 }
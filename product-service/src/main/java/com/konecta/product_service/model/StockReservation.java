@@ -0,0 +1,54 @@
+package com.konecta.product_service.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.springframework.data.domain.Persistable;
+
+import java.time.Instant;
+
+/**
+ * Outcome of a processed order, keyed by order id so a redelivered {@code order.created} event is
+ * answered from here instead of taking stock twice.
+ */
+@Entity
+@Table(name = "stock_reservations")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockReservation implements Persistable<Long> {
+
+    @Id
+    private Long orderId;
+
+    @Column(nullable = false, length = 16)
+    private String status;
+
+    private String reason;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    // The id is assigned, so without this saveAll would merge (SELECT then INSERT) every new row
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private boolean persisted;
+
+    @Override
+    public Long getId() {
+        return orderId;
+    }
+
+    @Override
+    public boolean isNew() {
+        return !persisted;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markPersisted() {
+        persisted = true;
+    }
+}
@@ -0,0 +1,303 @@
+package com.konecta.product_service.recommend;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * "Frequently bought together", maintained incrementally from orders. Every pair of distinct
+ * products in an order adds to a sparse symmetric co-occurrence matrix held in primitive
+ * open-addressing maps.
+ *
+ * <p>Counts decay exponentially with a configurable half-life. Instead of touching every cell, new
+ * purchases are weighted by {@code 2^((now - epoch) / halfLife)}, so stored values are counts
+ * inflated to the current time. The periodic maintenance pass folds the weight back in, drops cells
+ * below {@code min-count}, and keeps only the strongest {@code max-neighbors} per product. It then
+ * writes a snapshot that is reloaded on startup.
+ */
+@Component
+public class CoPurchaseEngine {
+    private static final Logger log = LoggerFactory.getLogger(CoPurchaseEngine.class);
+
+    private static final int SNAPSHOT_MAGIC = 0x43505331;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private LongObjectMap<LongFloatMap> matrix = new LongObjectMap<>(1024);
+    // Time at which stored counts equal real counts
+    private long epochMillis = System.currentTimeMillis();
+
+    private final double halfLifeMillis;
+    private final int maxNeighbors;
+    private final float minCount;
+    private final int maxItemsPerOrder;
+    private final Path snapshotPath;
+
+    public CoPurchaseEngine(@Value("${recommendations.half-life:7d}") Duration halfLife,
+                            @Value("${recommendations.max-neighbors:100}") int maxNeighbors,
+                            @Value("${recommendations.min-count:0.5}") float minCount,
+                            @Value("${recommendations.max-items-per-order:50}") int maxItemsPerOrder,
+                            @Value("${recommendations.snapshot-path:}") String snapshotPath) {
+        this.halfLifeMillis = halfLife.toMillis();
+        this.maxNeighbors = maxNeighbors;
+        this.minCount = minCount;
+        this.maxItemsPerOrder = maxItemsPerOrder;
+        this.snapshotPath = snapshotPath.isBlank() ? null : Path.of(snapshotPath);
+    }
+
+    /**
+     * Records the products of several orders; each array holds the distinct product ids of one order.
+     * Orders larger than {@code max-items-per-order} only count their first items, which bounds the
+     * quadratic pair expansion.
+     */
+    public void record(List<long[]> orders) {
+        lock.writeLock().lock();
+        try {
+            float weight = weight(System.currentTimeMillis());
+            for (long[] products : orders) {
+                int n = Math.min(products.length, maxItemsPerOrder);
+                for (int i = 0; i < n; i++) {
+                    for (int j = i + 1; j < n; j++) {
+                        increment(products[i], products[j], weight);
+                        increment(products[j], products[i], weight);
+                    }
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void increment(long product, long other, float weight) {
+        LongFloatMap row = matrix.get(product);
+        if (row == null) {
+            row = new LongFloatMap(8);
+            matrix.put(product, row);
+        }
+        row.add(other, weight);
+        // Cap the row between maintenance passes so one popular product cannot grow without bound
+        if (row.size() > 2 * maxNeighbors) {
+            matrix.put(product, row.pruned(1f, 0f, maxNeighbors));
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} products most often bought with {@code productId}, strongest first.
+     */
+    public List<RelatedProduct> related(long productId, int limit) {
+        lock.readLock().lock();
+        try {
+            LongFloatMap row = matrix.get(productId);
+            if (row == null || limit <= 0) {
+                return List.of();
+            }
+            // Min-heap of the best entries seen so far
+            long[] heapKeys = new long[Math.min(limit, row.size())];
+            float[] heapValues = new float[heapKeys.length];
+            int size = 0;
+            for (int slot = 0; slot < row.capacity(); slot++) {
+                long key = row.keyAt(slot);
+                if (key == 0) {
+                    continue;
+                }
+                float value = row.valueAt(slot);
+                if (size < heapKeys.length) {
+                    heapKeys[size] = key;
+                    heapValues[size] = value;
+                    siftUp(heapKeys, heapValues, size++);
+                } else if (value > heapValues[0]) {
+                    heapKeys[0] = key;
+                    heapValues[0] = value;
+                    siftDown(heapKeys, heapValues, size);
+                }
+            }
+
+            double weight = weight(System.currentTimeMillis());
+            RelatedProduct[] result = new RelatedProduct[size];
+            for (int i = size - 1; i >= 0; i--) {
+                result[i] = new RelatedProduct(heapKeys[0], heapValues[0] / weight);
+                heapKeys[0] = heapKeys[i];
+                heapValues[0] = heapValues[i];
+                siftDown(heapKeys, heapValues, i);
+            }
+            return List.of(result);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return matrix.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${recommendations.maintenance-interval:PT10M}",
+            initialDelayString = "${recommendations.maintenance-interval:PT10M}")
+    public void maintain() {
+        lock.writeLock().lock();
+        try {
+            long now = System.currentTimeMillis();
+            float multiplier = 1f / weight(now);
+            LongObjectMap<LongFloatMap> compacted = new LongObjectMap<>(matrix.size());
+            for (int slot = 0; slot < matrix.capacity(); slot++) {
+                if (matrix.keyAt(slot) != 0) {
+                    LongFloatMap row = matrix.valueAt(slot).pruned(multiplier, minCount, maxNeighbors);
+                    if (row.size() > 0) {
+                        compacted.put(matrix.keyAt(slot), row);
+                    }
+                }
+            }
+            matrix = compacted;
+            epochMillis = now;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        writeSnapshot();
+    }
+
+    @PostConstruct
+    void loadSnapshot() {
+        if (snapshotPath == null || !Files.exists(snapshotPath)) {
+            return;
+        }
+        long started = System.currentTimeMillis();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                new GZIPInputStream(Files.newInputStream(snapshotPath)), 64 * 1024))) {
+            if (in.readInt() != SNAPSHOT_MAGIC) {
+                log.warn("Ignoring co-purchase snapshot {}: unknown format", snapshotPath);
+                return;
+            }
+            long epoch = in.readLong();
+            int rows = in.readInt();
+            LongObjectMap<LongFloatMap> loaded = new LongObjectMap<>(rows);
+            for (int r = 0; r < rows; r++) {
+                long product = in.readLong();
+                int cells = in.readInt();
+                LongFloatMap row = new LongFloatMap(cells);
+                for (int c = 0; c < cells; c++) {
+                    row.put(in.readLong(), in.readFloat());
+                }
+                loaded.put(product, row);
+            }
+            lock.writeLock().lock();
+            try {
+                matrix = loaded;
+                epochMillis = epoch;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.info("Loaded co-purchase snapshot with {} products in {} ms", rows, System.currentTimeMillis() - started);
+        } catch (IOException e) {
+            log.warn("Could not load co-purchase snapshot {}: {}", snapshotPath, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    void writeSnapshot() {
+        if (snapshotPath == null) {
+            return;
+        }
+        Path tmp = null;
+        try {
+            Path dir = snapshotPath.toAbsolutePath().getParent();
+            Files.createDirectories(dir);
+            // Unique per writer, so replicas sharing a volume never interleave into one file
+            tmp = Files.createTempFile(dir, snapshotPath.getFileName().toString(), ".tmp");
+            // Holding the read lock only pauses recording; lookups carry on
+            lock.readLock().lock();
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                    new GZIPOutputStream(Files.newOutputStream(tmp)), 64 * 1024))) {
+                out.writeInt(SNAPSHOT_MAGIC);
+                out.writeLong(epochMillis);
+                out.writeInt(matrix.size());
+                for (int slot = 0; slot < matrix.capacity(); slot++) {
+                    if (matrix.keyAt(slot) == 0) {
+                        continue;
+                    }
+                    LongFloatMap row = matrix.valueAt(slot);
+                    out.writeLong(matrix.keyAt(slot));
+                    out.writeInt(row.size());
+                    for (int cell = 0; cell < row.capacity(); cell++) {
+                        if (row.keyAt(cell) != 0) {
+                            out.writeLong(row.keyAt(cell));
+                            out.writeFloat(row.valueAt(cell));
+                        }
+                    }
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+            Files.move(tmp, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Could not write co-purchase snapshot {}: {}", snapshotPath, e.getMessage());
+            if (tmp != null) {
+                tmp.toFile().delete();
+            }
+        }
+    }
+
+    private float weight(long now) {
+        return (float) Math.pow(2, (now - epochMillis) / halfLifeMillis);
+    }
+
+    private static void siftUp(long[] keys, float[] values, int i) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (values[parent] <= values[i]) {
+                return;
+            }
+            swap(keys, values, i, parent);
+            i = parent;
+        }
+    }
+
+    private static void siftDown(long[] keys, float[] values, int size) {
+        int i = 0;
+        while (true) {
+            int smallest = i;
+            int left = 2 * i + 1;
+            int right = left + 1;
+            if (left < size && values[left] < values[smallest]) {
+                smallest = left;
+            }
+            if (right < size && values[right] < values[smallest]) {
+                smallest = right;
+            }
+            if (smallest == i) {
+                return;
+            }
+            swap(keys, values, i, smallest);
+            i = smallest;
+        }
+    }
+
+    private static void swap(long[] keys, float[] values, int a, int b) {
+        long key = keys[a];
+        keys[a] = keys[b];
+        keys[b] = key;
+        float value = values[a];
+        values[a] = values[b];
+        values[b] = value;
+    }
+}
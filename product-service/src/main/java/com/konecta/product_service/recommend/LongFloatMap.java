@@ -0,0 +1,137 @@
+package com.konecta.product_service.recommend;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing {@code long -> float} map with linear probing. Keys are positive product ids, so
+ * {@code 0} marks an empty slot. There is no single-key removal; {@link #pruned} builds a smaller copy.
+ */
+final class LongFloatMap {
+
+    private static final float LOAD_FACTOR = 0.7f;
+
+    private long[] keys;
+    private float[] values;
+    private int size;
+
+    LongFloatMap(int expected) {
+        int capacity = tableSize(expected);
+        keys = new long[capacity];
+        values = new float[capacity];
+    }
+
+    int size() {
+        return size;
+    }
+
+    /** Number of slots; iterate with {@link #keyAt}/{@link #valueAt} and skip slots whose key is 0. */
+    int capacity() {
+        return keys.length;
+    }
+
+    long keyAt(int slot) {
+        return keys[slot];
+    }
+
+    float valueAt(int slot) {
+        return values[slot];
+    }
+
+    float get(long key) {
+        int slot = find(keys, key);
+        return keys[slot] == key ? values[slot] : 0f;
+    }
+
+    void add(long key, float delta) {
+        int slot = find(keys, key);
+        if (keys[slot] == key) {
+            values[slot] += delta;
+            return;
+        }
+        keys[slot] = key;
+        values[slot] = delta;
+        if (++size > keys.length * LOAD_FACTOR) {
+            resize(keys.length * 2);
+        }
+    }
+
+    void put(long key, float value) {
+        int slot = find(keys, key);
+        if (keys[slot] != key) {
+            keys[slot] = key;
+            if (++size > keys.length * LOAD_FACTOR) {
+                values[slot] = value;
+                resize(keys.length * 2);
+                return;
+            }
+        }
+        values[slot] = value;
+    }
+
+    /**
+     * Returns a copy with every value multiplied by {@code multiplier}, without entries that end up
+     * below {@code minValue}, and with only the {@code maxEntries} largest kept. Ties at the cut-off
+     * may keep slightly fewer.
+     */
+    LongFloatMap pruned(float multiplier, float minValue, int maxEntries) {
+        float threshold = minValue;
+        if (size > maxEntries) {
+            float[] sorted = new float[size];
+            int n = 0;
+            for (int slot = 0; slot < keys.length; slot++) {
+                if (keys[slot] != 0) {
+                    sorted[n++] = values[slot] * multiplier;
+                }
+            }
+            Arrays.sort(sorted);
+            // Strictly above the value that would be entry maxEntries + 1 from the top
+            threshold = Math.max(threshold, Math.nextUp(sorted[size - maxEntries - 1]));
+        }
+        LongFloatMap copy = new LongFloatMap(Math.min(size, maxEntries));
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (keys[slot] != 0) {
+                float value = values[slot] * multiplier;
+                if (value >= threshold) {
+                    copy.put(keys[slot], value);
+                }
+            }
+        }
+        return copy;
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        float[] oldValues = values;
+        keys = new long[capacity];
+        values = new float[capacity];
+        for (int slot = 0; slot < oldKeys.length; slot++) {
+            if (oldKeys[slot] != 0) {
+                int target = find(keys, oldKeys[slot]);
+                keys[target] = oldKeys[slot];
+                values[target] = oldValues[slot];
+            }
+        }
+    }
+
+    static int find(long[] keys, long key) {
+        int mask = keys.length - 1;
+        int slot = mix(key) & mask;
+        while (keys[slot] != 0 && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    static int tableSize(int expected) {
+        int capacity = 4;
+        while (capacity * LOAD_FACTOR < expected) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+}
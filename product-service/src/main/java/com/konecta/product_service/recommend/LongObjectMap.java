@@ -0,0 +1,68 @@
+package com.konecta.product_service.recommend;
+
+/**
+ * Open-addressing {@code long -> V} map for positive keys, the outer level of the co-purchase
+ * matrix. Like {@link LongFloatMap} it has no single-key removal; the engine rebuilds it when pruning.
+ */
+final class LongObjectMap<V> {
+
+    private static final float LOAD_FACTOR = 0.7f;
+
+    private long[] keys;
+    private Object[] values;
+    private int size;
+
+    LongObjectMap(int expected) {
+        int capacity = LongFloatMap.tableSize(expected);
+        keys = new long[capacity];
+        values = new Object[capacity];
+    }
+
+    int size() {
+        return size;
+    }
+
+    int capacity() {
+        return keys.length;
+    }
+
+    long keyAt(int slot) {
+        return keys[slot];
+    }
+
+    @SuppressWarnings("unchecked")
+    V valueAt(int slot) {
+        return (V) values[slot];
+    }
+
+    @SuppressWarnings("unchecked")
+    V get(long key) {
+        int slot = LongFloatMap.find(keys, key);
+        return keys[slot] == key ? (V) values[slot] : null;
+    }
+
+    void put(long key, V value) {
+        int slot = LongFloatMap.find(keys, key);
+        values[slot] = value;
+        if (keys[slot] != key) {
+            keys[slot] = key;
+            if (++size > keys.length * LOAD_FACTOR) {
+                resize(keys.length * 2);
+            }
+        }
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        keys = new long[capacity];
+        values = new Object[capacity];
+        for (int slot = 0; slot < oldKeys.length; slot++) {
+            if (oldKeys[slot] != 0) {
+                int target = LongFloatMap.find(keys, oldKeys[slot]);
+                keys[target] = oldKeys[slot];
+                values[target] = oldValues[slot];
+            }
+        }
+    }
+}
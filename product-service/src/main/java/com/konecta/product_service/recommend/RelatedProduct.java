@@ -0,0 +1,7 @@
+package com.konecta.product_service.recommend;
+
+/**
+ * A product bought together with the requested one; {@code score} is the decayed co-purchase count.
+ */
+public record RelatedProduct(long productId, double score) {
+}
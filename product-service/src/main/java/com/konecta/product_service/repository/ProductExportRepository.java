@@ -0,0 +1,18 @@
+package com.konecta.product_service.repository;
+
+import com.konecta.product_service.model.Product;
+
+import java.util.stream.Stream;
+
+/**
+ * Forward-only read of the whole catalog for exports.
+ */
+public interface ProductExportRepository {
+
+    /**
+     * Streams products in id order, optionally limited to one category. Entities are detached as
+     * they are emitted so the persistence context stays empty. Must be called, and the stream
+     * consumed and closed, inside a transaction.
+     */
+    Stream<Product> streamAll(String category);
+}
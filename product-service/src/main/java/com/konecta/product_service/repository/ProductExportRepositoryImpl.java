@@ -0,0 +1,34 @@
+package com.konecta.product_service.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.jpa.HibernateHints;
+
+import com.konecta.product_service.model.Product;
+
+import java.util.stream.Stream;
+
+class ProductExportRepositoryImpl implements ProductExportRepository {
+
+    // Connector/J only streams rows for this fetch size; any positive value buffers the whole result
+    private static final int MYSQL_STREAMING_FETCH_SIZE = Integer.MIN_VALUE;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Stream<Product> streamAll(String category) {
+        String jpql = category == null
+                ? "select p from Product p order by p.id"
+                : "select p from Product p where p.category = :category order by p.id";
+        TypedQuery<Product> query = entityManager.createQuery(jpql, Product.class)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, MYSQL_STREAMING_FETCH_SIZE)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .setHint(HibernateHints.HINT_CACHEABLE, false);
+        if (category != null) {
+            query.setParameter("category", category);
+        }
+        return query.getResultStream().peek(entityManager::detach);
+    }
+}
@@ -0,0 +1,17 @@
+package com.konecta.product_service.repository;
+
+import com.konecta.product_service.dto.ProductSummary;
+import com.konecta.product_service.model.Product;
+
+import java.util.List;
+
+/**
+ * Keyset ("seek") queries over products: each page starts strictly after the last row of the
+ * previous one, so the cost of a page does not grow with its position in the catalog.
+ */
+public interface ProductKeysetRepository {
+
+    List<Product> findPage(String category, ProductSort sort, Double afterPrice, Long afterId, int limit);
+
+    List<ProductSummary> findSummaryPage(String category, ProductSort sort, Double afterPrice, Long afterId, int limit);
+}
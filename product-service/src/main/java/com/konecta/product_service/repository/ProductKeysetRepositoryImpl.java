@@ -0,0 +1,66 @@
+package com.konecta.product_service.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+import com.konecta.product_service.dto.ProductSummary;
+import com.konecta.product_service.model.Product;
+
+import java.util.List;
+
+class ProductKeysetRepositoryImpl implements ProductKeysetRepository {
+
+    private static final String SUMMARY_SELECT =
+            "select new com.konecta.product_service.dto.ProductSummary(p.id, p.name, p.price, p.stock, p.category)";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Product> findPage(String category, ProductSort sort, Double afterPrice, Long afterId, int limit) {
+        return query("select p", Product.class, category, sort, afterPrice, afterId, limit).getResultList();
+    }
+
+    @Override
+    public List<ProductSummary> findSummaryPage(String category, ProductSort sort, Double afterPrice, Long afterId, int limit) {
+        return query(SUMMARY_SELECT, ProductSummary.class, category, sort, afterPrice, afterId, limit).getResultList();
+    }
+
+    private <T> TypedQuery<T> query(String select, Class<T> type, String category, ProductSort sort,
+                                    Double afterPrice, Long afterId, int limit) {
+        String cmp = sort.ascending() ? ">" : "<";
+        String dir = sort.ascending() ? "asc" : "desc";
+
+        StringBuilder jpql = new StringBuilder(select).append(" from Product p where 1 = 1");
+        if (category != null) {
+            jpql.append(" and p.category = :category");
+        }
+        if (sort.byPrice()) {
+            // NULL prices have no position in a price ordering, so they are left out of price listings
+            jpql.append(" and p.price is not null");
+            if (afterId != null) {
+                jpql.append(" and (p.price ").append(cmp).append(" :afterPrice")
+                        .append(" or (p.price = :afterPrice and p.id ").append(cmp).append(" :afterId))");
+            }
+            jpql.append(" order by p.price ").append(dir).append(", p.id ").append(dir);
+        } else {
+            if (afterId != null) {
+                jpql.append(" and p.id ").append(cmp).append(" :afterId");
+            }
+            jpql.append(" order by p.id ").append(dir);
+        }
+
+        TypedQuery<T> query = entityManager.createQuery(jpql.toString(), type);
+        if (category != null) {
+            query.setParameter("category", category);
+        }
+        if (afterId != null) {
+            query.setParameter("afterId", afterId);
+            if (sort.byPrice()) {
+                query.setParameter("afterPrice", afterPrice);
+            }
+        }
+        return query.setMaxResults(limit);
+    }
+}
@@ -1,8 +1,40 @@
 package com.konecta.product_service.repository;
 
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.konecta.product_service.model.Product;
 
-public interface ProductRepository extends JpaRepository<Product, Long> {
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface ProductRepository extends JpaRepository<Product, Long>, ProductKeysetRepository, ProductExportRepository {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select p from Product p where p.id = :id")
+    Optional<Product> findByIdForUpdate(@Param("id") Long id);
+
+    @Query("select p.id from Product p where p.category = :category")
+    List<Long> findIdsByCategory(@Param("category") String category);
+
+    @Modifying
+    @Query("update Product p set p.price = round(p.price * :factor, 2), p.version = p.version + 1 where p.category = :category and p.price is not null")
+    int scalePricesByCategory(@Param("category") String category, @Param("factor") double factor);
+
+    @Modifying
+    @Query("update Product p set p.price = round(p.price * :factor, 2), p.version = p.version + 1 where p.id in :ids and p.price is not null")
+    int scalePricesByIds(@Param("ids") Collection<Long> ids, @Param("factor") double factor);
+
+    @Modifying
+    @Query("update Product p set p.price = :price, p.version = p.version + 1 where p.category = :category")
+    int setPricesByCategory(@Param("category") String category, @Param("price") double price);
+
+    @Modifying
+    @Query("update Product p set p.price = :price, p.version = p.version + 1 where p.id in :ids")
+    int setPricesByIds(@Param("ids") Collection<Long> ids, @Param("price") double price);
 }
@@ -0,0 +1,38 @@
+package com.konecta.product_service.repository;
+
+/**
+ * Orderings supported by keyset pagination. Every ordering ends with {@code id} so the key is unique.
+ */
+public enum ProductSort {
+    ID_ASC("id", true),
+    ID_DESC("id", false),
+    PRICE_ASC("price", true),
+    PRICE_DESC("price", false);
+
+    private final String field;
+    private final boolean ascending;
+
+    ProductSort(String field, boolean ascending) {
+        this.field = field;
+        this.ascending = ascending;
+    }
+
+    public boolean byPrice() {
+        return "price".equals(field);
+    }
+
+    public boolean ascending() {
+        return ascending;
+    }
+
+    public static ProductSort of(String field, String order) {
+        boolean ascending = !"desc".equalsIgnoreCase(order);
+        if ("price".equalsIgnoreCase(field)) {
+            return ascending ? PRICE_ASC : PRICE_DESC;
+        }
+        if ("id".equalsIgnoreCase(field)) {
+            return ascending ? ID_ASC : ID_DESC;
+        }
+        throw new IllegalArgumentException("Unsupported sort field: " + field);
+    }
+}
@@ -0,0 +1,8 @@
+package com.konecta.product_service.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.konecta.product_service.model.StockReservation;
+
+public interface StockReservationRepository extends JpaRepository<StockReservation, Long> {
+}
@@ -0,0 +1,78 @@
+package com.konecta.product_service.search;
+
+/**
+ * Scored, doc-id-sorted candidate list produced while evaluating a query.
+ */
+final class Matches {
+
+    static final Matches EMPTY = new Matches(new int[0], new float[0], 0, 1f);
+
+    final int[] docs;
+    final float[] scores;
+    final int size;
+    final float boost;
+
+    Matches(int[] docs, float[] scores, int size, float boost) {
+        this.docs = docs;
+        this.scores = scores;
+        this.size = size;
+        this.boost = boost;
+    }
+
+    /** Views a posting list without copying it; only valid while the index read lock is held. */
+    static Matches of(Postings postings, float boost) {
+        return new Matches(postings.docs, postings.weights, postings.size, boost);
+    }
+
+    float score(int i) {
+        return scores[i] * boost;
+    }
+
+    /** Documents in either list; a document matching both keeps its better score. */
+    Matches union(Matches other) {
+        int[] docs = new int[size + other.size];
+        float[] scores = new float[size + other.size];
+        int i = 0, j = 0, n = 0;
+        while (i < size && j < other.size) {
+            int a = this.docs[i], b = other.docs[j];
+            if (a == b) {
+                docs[n] = a;
+                scores[n++] = Math.max(this.score(i++), other.score(j++));
+            } else if (a < b) {
+                docs[n] = a;
+                scores[n++] = this.score(i++);
+            } else {
+                docs[n] = b;
+                scores[n++] = other.score(j++);
+            }
+        }
+        while (i < size) {
+            docs[n] = this.docs[i];
+            scores[n++] = this.score(i++);
+        }
+        while (j < other.size) {
+            docs[n] = other.docs[j];
+            scores[n++] = other.score(j++);
+        }
+        return new Matches(docs, scores, n, 1f);
+    }
+
+    /** Documents in both lists, with their scores summed. */
+    Matches intersect(Matches other) {
+        int[] docs = new int[Math.min(size, other.size)];
+        float[] scores = new float[docs.length];
+        int i = 0, j = 0, n = 0;
+        while (i < size && j < other.size) {
+            int a = this.docs[i], b = other.docs[j];
+            if (a == b) {
+                docs[n] = a;
+                scores[n++] = this.score(i++) + other.score(j++);
+            } else if (a < b) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return new Matches(docs, scores, n, 1f);
+    }
+}
@@ -0,0 +1,55 @@
+package com.konecta.product_service.search;
+
+import java.util.Arrays;
+
+/**
+ * Posting list of one term: internal doc ids kept sorted in an {@code int[]} with a parallel
+ * {@code float[]} of per-document term weights, so lookups and merges never box.
+ */
+final class Postings {
+
+    int[] docs = new int[2];
+    float[] weights = new float[2];
+    int size;
+
+    void put(int doc, float weight) {
+        // New documents get increasing ids, so the common case is an append
+        if (size == 0 || docs[size - 1] < doc) {
+            ensureCapacity();
+            docs[size] = doc;
+            weights[size] = weight;
+            size++;
+            return;
+        }
+        int i = Arrays.binarySearch(docs, 0, size, doc);
+        if (i >= 0) {
+            weights[i] = weight;
+            return;
+        }
+        i = -i - 1;
+        ensureCapacity();
+        System.arraycopy(docs, i, docs, i + 1, size - i);
+        System.arraycopy(weights, i, weights, i + 1, size - i);
+        docs[i] = doc;
+        weights[i] = weight;
+        size++;
+    }
+
+    void remove(int doc) {
+        int i = Arrays.binarySearch(docs, 0, size, doc);
+        if (i < 0) {
+            return;
+        }
+        System.arraycopy(docs, i + 1, docs, i, size - i - 1);
+        System.arraycopy(weights, i + 1, weights, i, size - i - 1);
+        size--;
+    }
+
+    private void ensureCapacity() {
+        if (size == docs.length) {
+            int capacity = size + (size >> 1) + 1;
+            docs = Arrays.copyOf(docs, capacity);
+            weights = Arrays.copyOf(weights, capacity);
+        }
+    }
+}
@@ -0,0 +1,431 @@
+package com.konecta.product_service.search;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.konecta.product_service.model.Product;
+import com.konecta.product_service.repository.ProductRepository;
+import com.konecta.product_service.repository.ProductSort;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-process inverted index over product name, category and description. It is loaded from the
+ * database once at startup and then kept current by {@code ProductService} on every write, so
+ * searches never touch MySQL.
+ *
+ * <p>All query terms must match; the last one also matches as a prefix so results follow the user
+ * while they type. Hits are ranked by field-weighted term frequency times inverse document frequency.
+ */
+@Component
+public class ProductSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductSearchIndex.class);
+
+    private static final float NAME_WEIGHT = 3f;
+    private static final float CATEGORY_WEIGHT = 2f;
+    private static final float DESCRIPTION_WEIGHT = 1f;
+    private static final float PREFIX_BOOST = 0.8f;
+    private static final int MAX_PREFIX_TERMS = 50;
+    private static final int MAX_PREFIX_SCAN = 5000;
+    private static final int MAX_TERM_LENGTH = 64;
+    private static final int LOAD_BATCH = 1000;
+
+    private record Doc(long productId, long version, String name, Double price, Integer stock, String category,
+                       String[] terms) {
+    }
+
+    private final ProductRepository productRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final NavigableMap<String, Postings> terms = new TreeMap<>();
+    private final List<Doc> docs = new ArrayList<>();
+    // Category ordinal per doc, kept apart from Doc so facet counting scans a primitive array
+    private int[] docCategories = new int[1024];
+    private final Map<Long, Integer> docByProduct = new HashMap<>();
+    private final Map<String, Integer> categoryOrds = new HashMap<>();
+    private final List<String> categoryNames = new ArrayList<>();
+    private int liveDocs;
+
+    public ProductSearchIndex(ProductRepository productRepository) {
+        this.productRepository = productRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long started = System.currentTimeMillis();
+        Long afterId = null;
+        List<Product> batch;
+        do {
+            batch = productRepository.findPage(null, ProductSort.ID_ASC, null, afterId, LOAD_BATCH);
+            lock.writeLock().lock();
+            try {
+                batch.forEach(this::indexLocked);
+            } finally {
+                lock.writeLock().unlock();
+            }
+            if (!batch.isEmpty()) {
+                afterId = batch.get(batch.size() - 1).getId();
+            }
+        } while (batch.size() == LOAD_BATCH);
+        log.info("Indexed {} products for search in {} ms", size(), System.currentTimeMillis() - started);
+    }
+
+    public void index(Product product) {
+        lock.writeLock().lock();
+        try {
+            indexLocked(product);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Refreshes the stock shown in hits without re-tokenising the product.
+     */
+    public void updateStock(Long productId, Integer stock, long version) {
+        lock.writeLock().lock();
+        try {
+            Integer doc = docByProduct.get(productId);
+            if (doc != null) {
+                Doc old = docs.get(doc);
+                docs.set(doc, new Doc(old.productId(), version, old.name(), old.price(), stock, old.category(), old.terms()));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a product and returns the last version this index saw for it, or {@code null} if it
+     * was not indexed.
+     */
+    public Long remove(Long productId) {
+        lock.writeLock().lock();
+        try {
+            Integer doc = docByProduct.remove(productId);
+            if (doc == null) {
+                return null;
+            }
+            long version = docs.get(doc).version();
+            unindex(doc);
+            docs.set(doc, null);
+            liveDocs--;
+            return version;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Category of an indexed product, or {@code null} if it is unknown or has none.
+     */
+    public String categoryOf(long productId) {
+        lock.readLock().lock();
+        try {
+            Integer doc = docByProduct.get(productId);
+            return doc == null ? null : docs.get(doc).category();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return liveDocs;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Runs a ranked search. Facet counts cover every match of {@code query}; the optional
+     * {@code category} filter only narrows the hits and {@code total}.
+     */
+    public SearchResult search(String query, String category, int limit) {
+        List<String> queryTerms = new ArrayList<>(new LinkedHashSet<>(tokenize(query)));
+        if (queryTerms.isEmpty()) {
+            return new SearchResult(0, List.of(), Map.of());
+        }
+
+        lock.readLock().lock();
+        try {
+            Matches matches = evaluate(queryTerms);
+
+            int[] facetCounts = new int[categoryNames.size()];
+            int wanted = category == null ? -1 : categoryOrds.getOrDefault(category, -2);
+            int[] selected = new int[matches.size];
+            int total = 0;
+            for (int i = 0; i < matches.size; i++) {
+                int ord = docCategories[matches.docs[i]];
+                if (ord >= 0) {
+                    facetCounts[ord]++;
+                }
+                if (wanted == -1 || ord == wanted) {
+                    selected[total++] = i;
+                }
+            }
+
+            int[] top = topK(selected, total, matches, limit);
+            List<SearchResult.Hit> hits = new ArrayList<>(top.length);
+            for (int i : top) {
+                Doc doc = docs.get(matches.docs[i]);
+                hits.add(new SearchResult.Hit(doc.productId(), doc.name(), doc.price(), doc.stock(), doc.category(),
+                        matches.score(i)));
+            }
+
+            Map<String, Integer> facets = new LinkedHashMap<>();
+            Integer[] order = new Integer[facetCounts.length];
+            for (int i = 0; i < order.length; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, (a, b) -> Integer.compare(facetCounts[b], facetCounts[a]));
+            for (int ord : order) {
+                if (facetCounts[ord] > 0) {
+                    facets.put(categoryNames.get(ord), facetCounts[ord]);
+                }
+            }
+            return new SearchResult(total, hits, facets);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Completes a partial word to indexed terms, most common first.
+     */
+    public List<String> suggest(String prefix, int limit) {
+        List<String> tokens = tokenize(prefix);
+        if (tokens.isEmpty()) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            return expand(tokens.get(tokens.size() - 1), limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Matches evaluate(List<String> queryTerms) {
+        List<Matches> groups = new ArrayList<>(queryTerms.size());
+        for (int t = 0; t < queryTerms.size(); t++) {
+            String term = queryTerms.get(t);
+            Matches group;
+            if (t < queryTerms.size() - 1) {
+                Postings postings = terms.get(term);
+                group = postings == null ? Matches.EMPTY : Matches.of(postings, idf(postings));
+            } else {
+                group = Matches.EMPTY;
+                for (String expansion : expand(term, MAX_PREFIX_TERMS)) {
+                    Postings postings = terms.get(expansion);
+                    float boost = idf(postings) * (expansion.equals(term) ? 1f : PREFIX_BOOST);
+                    Matches expanded = Matches.of(postings, boost);
+                    group = group.size == 0 ? expanded : group.union(expanded);
+                }
+            }
+            if (group.size == 0) {
+                return Matches.EMPTY;
+            }
+            groups.add(group);
+        }
+
+        // Intersect smallest-first so the candidate set shrinks as fast as possible
+        groups.sort((a, b) -> Integer.compare(a.size, b.size));
+        Matches result = groups.get(0);
+        for (int i = 1; i < groups.size() && result.size > 0; i++) {
+            result = result.intersect(groups.get(i));
+        }
+        return result;
+    }
+
+    private List<String> expand(String prefix, int limit) {
+        List<Map.Entry<String, Postings>> candidates = new ArrayList<>();
+        int scanned = 0;
+        for (Map.Entry<String, Postings> entry : terms.tailMap(prefix, true).entrySet()) {
+            if (!entry.getKey().startsWith(prefix) || ++scanned > MAX_PREFIX_SCAN) {
+                break;
+            }
+            candidates.add(entry);
+        }
+        candidates.sort((a, b) -> Integer.compare(b.getValue().size, a.getValue().size));
+        List<String> result = new ArrayList<>(Math.min(limit, candidates.size()));
+        for (int i = 0; i < candidates.size() && result.size() < limit; i++) {
+            result.add(candidates.get(i).getKey());
+        }
+        return result;
+    }
+
+    private float idf(Postings postings) {
+        return (float) Math.log(1 + (double) liveDocs / Math.max(1, postings.size));
+    }
+
+    /**
+     * Indices into {@code matches} of the {@code k} best entries among {@code selected[0..n)}, best
+     * first, using a bounded min-heap so only {@code k} candidates are ever ordered.
+     */
+    private static int[] topK(int[] selected, int n, Matches matches, int k) {
+        int size = Math.min(k, n);
+        // The boost is a positive constant, so raw scores rank the same as boosted ones
+        float[] scores = matches.scores;
+        int[] heap = new int[size];
+        int heapSize = 0;
+        for (int s = 0; s < n; s++) {
+            int candidate = selected[s];
+            if (heapSize < size) {
+                heap[heapSize] = candidate;
+                siftUp(heap, heapSize++, scores);
+            } else if (size > 0 && scores[candidate] > scores[heap[0]]) {
+                heap[0] = candidate;
+                siftDown(heap, heapSize, scores);
+            }
+        }
+        int[] result = new int[heapSize];
+        for (int i = heapSize - 1; i >= 0; i--) {
+            result[i] = heap[0];
+            heap[0] = heap[--heapSize];
+            siftDown(heap, heapSize, scores);
+        }
+        return result;
+    }
+
+    private static void siftUp(int[] heap, int i, float[] scores) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (scores[heap[parent]] <= scores[heap[i]]) {
+                return;
+            }
+            swap(heap, i, parent);
+            i = parent;
+        }
+    }
+
+    private static void siftDown(int[] heap, int size, float[] scores) {
+        int i = 0;
+        while (true) {
+            int smallest = i;
+            int left = 2 * i + 1;
+            int right = left + 1;
+            if (left < size && scores[heap[left]] < scores[heap[smallest]]) {
+                smallest = left;
+            }
+            if (right < size && scores[heap[right]] < scores[heap[smallest]]) {
+                smallest = right;
+            }
+            if (smallest == i) {
+                return;
+            }
+            swap(heap, i, smallest);
+            i = smallest;
+        }
+    }
+
+    private static void swap(int[] heap, int a, int b) {
+        int tmp = heap[a];
+        heap[a] = heap[b];
+        heap[b] = tmp;
+    }
+
+    private void indexLocked(Product product) {
+        if (product.getId() == null) {
+            return;
+        }
+        Integer existing = docByProduct.get(product.getId());
+        int doc;
+        if (existing != null) {
+            doc = existing;
+            unindex(doc);
+        } else {
+            doc = docs.size();
+            docs.add(null);
+            docByProduct.put(product.getId(), doc);
+            liveDocs++;
+        }
+
+        Map<String, Float> weights = new HashMap<>();
+        addField(weights, product.getName(), NAME_WEIGHT);
+        addField(weights, product.getCategory(), CATEGORY_WEIGHT);
+        addField(weights, product.getDescription(), DESCRIPTION_WEIGHT);
+        for (Map.Entry<String, Float> entry : weights.entrySet()) {
+            terms.computeIfAbsent(entry.getKey(), t -> new Postings()).put(doc, entry.getValue());
+        }
+
+        docs.set(doc, new Doc(product.getId(), product.getVersion() == null ? 0 : product.getVersion(), product.getName(),
+                product.getPrice(), product.getStock(), product.getCategory(), weights.keySet().toArray(new String[0])));
+        if (doc >= docCategories.length) {
+            docCategories = Arrays.copyOf(docCategories, docCategories.length * 2);
+        }
+        docCategories[doc] = categoryOrd(product.getCategory());
+    }
+
+    private void unindex(int doc) {
+        Doc old = docs.get(doc);
+        if (old == null) {
+            return;
+        }
+        for (String term : old.terms()) {
+            Postings postings = terms.get(term);
+            if (postings != null) {
+                postings.remove(doc);
+                if (postings.size == 0) {
+                    terms.remove(term);
+                }
+            }
+        }
+    }
+
+    private int categoryOrd(String category) {
+        if (category == null) {
+            return -1;
+        }
+        return categoryOrds.computeIfAbsent(category, c -> {
+            categoryNames.add(c);
+            return categoryNames.size() - 1;
+        });
+    }
+
+    private static void addField(Map<String, Float> weights, String text, float fieldWeight) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        for (String token : tokenize(text)) {
+            frequencies.merge(token, 1, Integer::sum);
+        }
+        // Dampen repetition so keyword stuffing in descriptions cannot outrank the name
+        frequencies.forEach((token, tf) ->
+                weights.merge(token, fieldWeight * (1f + (float) Math.log(tf)), Float::sum));
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isEmpty()) {
+            return List.of();
+        }
+        List<String> tokens = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        for (int i = 0; i <= text.length(); i++) {
+            char c = i < text.length() ? text.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                if (current.length() < MAX_TERM_LENGTH) {
+                    current.append(Character.toLowerCase(c));
+                }
+            } else if (current.length() > 0) {
+                tokens.add(current.toString().toLowerCase(Locale.ROOT));
+                current.setLength(0);
+            }
+        }
+        return tokens;
+    }
+}
@@ -0,0 +1,13 @@
+package com.konecta.product_service.search;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Ranked search hits plus category facet counts over every match of the query text.
+ */
+public record SearchResult(int total, List<Hit> hits, Map<String, Integer> categories) {
+
+    public record Hit(Long id, String name, Double price, Integer stock, String category, float score) {
+    }
+}
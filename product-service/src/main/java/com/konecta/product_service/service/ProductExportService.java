@@ -0,0 +1,144 @@
+package com.konecta.product_service.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.konecta.product_service.messaging.ProductEvent;
+import com.konecta.product_service.model.Product;
+import com.konecta.product_service.repository.ProductRepository;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+/**
+ * Writes the catalog to an output stream row by row, so memory use does not depend on catalog size.
+ */
+@Service
+public class ProductExportService {
+
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String contentType() {
+            return contentType;
+        }
+
+        public String extension() {
+            return extension;
+        }
+
+        public static Format of(String name) {
+            try {
+                return valueOf(name.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unsupported export format: " + name);
+            }
+        }
+    }
+
+    private static final String CSV_HEADER = "id,name,description,price,stock,category\n";
+
+    private final ProductRepository productRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectWriter productWriter;
+    private final ObjectWriter eventWriter;
+
+    public ProductExportService(ProductRepository productRepository, PlatformTransactionManager transactionManager,
+                                ObjectMapper objectMapper) {
+        this.productRepository = productRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.productWriter = objectMapper.writerFor(Product.class);
+        this.eventWriter = objectMapper.writerFor(ProductEvent.class);
+    }
+
+    /**
+     * Writes every product as an NDJSON {@link ProductEvent} of type {@code UPDATED}, so a replica can
+     * load the snapshot and then apply {@code product.events} deltas with the same code, skipping any
+     * event whose version is not newer than what it holds.
+     */
+    public void snapshot(OutputStream out) {
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<Product> products = productRepository.streamAll(null)) {
+                Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+                Iterator<Product> it = products.iterator();
+                while (it.hasNext()) {
+                    writer.write(eventWriter.writeValueAsString(ProductEvent.of(ProductEvent.Type.UPDATED, it.next())));
+                    writer.write('\n');
+                }
+                writer.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    public void export(Format format, String category, OutputStream out) {
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<Product> products = productRepository.streamAll(category)) {
+                Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+                if (format == Format.CSV) {
+                    writer.write(CSV_HEADER);
+                }
+                Iterator<Product> it = products.iterator();
+                while (it.hasNext()) {
+                    Product product = it.next();
+                    if (format == Format.CSV) {
+                        writeCsv(writer, product);
+                    } else {
+                        writer.write(productWriter.writeValueAsString(product));
+                        writer.write('\n');
+                    }
+                }
+                writer.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private static void writeCsv(Writer writer, Product product) throws IOException {
+        writer.write(String.valueOf(product.getId()));
+        writer.write(',');
+        writer.write(csv(product.getName()));
+        writer.write(',');
+        writer.write(csv(product.getDescription()));
+        writer.write(',');
+        writer.write(product.getPrice() == null ? "" : product.getPrice().toString());
+        writer.write(',');
+        writer.write(product.getStock() == null ? "" : product.getStock().toString());
+        writer.write(',');
+        writer.write(csv(product.getCategory()));
+        writer.write('\n');
+    }
+
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -1,45 +1,306 @@
 package com.konecta.product_service.service;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.konecta.product_service.cache.ProductCache;
+import com.konecta.product_service.dto.BulkPriceUpdate;
+import com.konecta.product_service.dto.ProductBatch;
+import com.konecta.product_service.dto.ProductPage;
+import com.konecta.product_service.dto.ProductSummary;
+import com.konecta.product_service.messaging.ProductChangeBroadcaster;
+import com.konecta.product_service.messaging.ProductEventPublisher;
+import com.konecta.product_service.recommend.CoPurchaseEngine;
+import com.konecta.product_service.recommend.RelatedProduct;
 import com.konecta.product_service.repository.ProductRepository;
+import com.konecta.product_service.repository.ProductSort;
+import com.konecta.product_service.search.ProductSearchIndex;
+import com.konecta.product_service.search.SearchResult;
+import com.konecta.product_service.trending.TrendingResult;
+import com.konecta.product_service.trending.TrendingTracker;
 
 import com.konecta.product_service.model.Product;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class ProductService {
 
+    private static final int REFRESH_CHUNK = 1000;
+
     private final ProductRepository productRepository;
+    private final ProductSearchIndex searchIndex;
+    private final ProductCache productCache;
+    private final ProductChangeBroadcaster changeBroadcaster;
+    private final ProductEventPublisher eventPublisher;
+    private final CoPurchaseEngine coPurchaseEngine;
+    private final TrendingTracker trendingTracker;
+    private final TransactionTemplate transactionTemplate;
+    private final int defaultPageSize;
+    private final int maxPageSize;
+    private final int maxBatchIds;
+    private final int maxBulkPriceIds;
 
-    public ProductService(ProductRepository productRepository) {
+    public ProductService(ProductRepository productRepository,
+                          ProductSearchIndex searchIndex,
+                          ProductCache productCache,
+                          ProductChangeBroadcaster changeBroadcaster,
+                          ProductEventPublisher eventPublisher,
+                          CoPurchaseEngine coPurchaseEngine,
+                          TrendingTracker trendingTracker,
+                          TransactionTemplate transactionTemplate,
+                          @Value("${products.page.default-size:20}") int defaultPageSize,
+                          @Value("${products.page.max-size:100}") int maxPageSize,
+                          @Value("${products.batch.max-ids:100}") int maxBatchIds,
+                          @Value("${products.bulk-price.max-ids:5000}") int maxBulkPriceIds) {
         this.productRepository = productRepository;
+        this.searchIndex = searchIndex;
+        this.productCache = productCache;
+        this.changeBroadcaster = changeBroadcaster;
+        this.eventPublisher = eventPublisher;
+        this.coPurchaseEngine = coPurchaseEngine;
+        this.trendingTracker = trendingTracker;
+        this.transactionTemplate = transactionTemplate;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+        this.maxBatchIds = maxBatchIds;
+        this.maxBulkPriceIds = maxBulkPriceIds;
     }
 
     public List<Product> getAllProducts() {
         return productRepository.findAll();
     }
 
+    /**
+     * Returns one keyset page, optionally filtered by category. With {@code summary} set, rows are
+     * projected to {@link ProductSummary} so the description column is never read.
+     *
+     * @throws IllegalArgumentException if the sort is unknown or the cursor is malformed or was issued for another sort
+     */
+    public ProductPage<?> getProductPage(String category, String sortField, String order, Integer size,
+                                         String cursor, boolean summary) {
+        ProductSort sort = ProductSort.of(sortField, order);
+        int limit = Math.min(maxPageSize, Math.max(1, size == null ? defaultPageSize : size));
+
+        Double afterPrice = null;
+        Long afterId = null;
+        if (cursor != null && !cursor.isEmpty()) {
+            String[] parts = decodeCursor(cursor);
+            if (!sort.name().equals(parts[0])) {
+                throw new IllegalArgumentException("Cursor was issued for a different sort");
+            }
+            afterPrice = parts[1].isEmpty() ? null : Double.valueOf(parts[1]);
+            afterId = Long.valueOf(parts[2]);
+        }
+
+        // One extra row tells us whether another page exists without a count query
+        if (summary) {
+            List<ProductSummary> rows = productRepository.findSummaryPage(category, sort, afterPrice, afterId, limit + 1);
+            return page(rows, limit, sort, ProductSummary::price, ProductSummary::id);
+        }
+        List<Product> rows = productRepository.findPage(category, sort, afterPrice, afterId, limit + 1);
+        return page(rows, limit, sort, Product::getPrice, Product::getId);
+    }
+
+    private static <T> ProductPage<T> page(List<T> rows, int limit, ProductSort sort,
+                                           Function<T, Double> price, Function<T, Long> id) {
+        if (rows.size() <= limit) {
+            return new ProductPage<>(rows, null);
+        }
+        List<T> items = rows.subList(0, limit);
+        T last = items.get(limit - 1);
+        return new ProductPage<>(items, encodeCursor(sort, sort.byPrice() ? price.apply(last) : null, id.apply(last)));
+    }
+
+    private static String encodeCursor(ProductSort sort, Double price, Long id) {
+        String raw = sort.name() + ":" + (price == null ? "" : price.toString()) + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String[] decodeCursor(String cursor) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":", -1);
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Malformed cursor");
+            }
+            Long.parseLong(parts[2]);
+            if (!parts[1].isEmpty()) {
+                Double.parseDouble(parts[1]);
+            }
+            return parts;
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Malformed cursor", e);
+        }
+    }
+
     public Product getProductById(Long id) {
-        return productRepository.findById(id)
+        return productCache.get(id, productRepository::findById)
                 .orElseThrow(() -> new RuntimeException("Product not found with id " + id));
     }
 
+    /**
+     * Looks up several products at once: cached ones are served from memory and the rest are
+     * loaded with a single query. Duplicate ids are returned once.
+     *
+     * @throws IllegalArgumentException if more than {@code products.batch.max-ids} ids are requested
+     */
+    public ProductBatch getProductsByIds(List<Long> ids) {
+        List<Long> distinct = ids.stream().filter(Objects::nonNull).distinct().toList();
+        if (distinct.size() > maxBatchIds) {
+            throw new IllegalArgumentException("At most " + maxBatchIds + " ids can be requested at once");
+        }
+
+        Map<Long, Optional<Product>> found = productCache.getAll(distinct, missing ->
+                productRepository.findAllById(missing).stream()
+                        .collect(Collectors.toMap(Product::getId, Function.identity())));
+
+        List<Product> products = new ArrayList<>(distinct.size());
+        List<Long> missing = new ArrayList<>();
+        for (Long id : distinct) {
+            found.get(id).ifPresentOrElse(products::add, () -> missing.add(id));
+        }
+        return new ProductBatch(products, missing);
+    }
+
     public Product createProduct(Product product) {
-        return productRepository.save(product);
+        Product saved = productRepository.save(product);
+        afterWrite(saved.getId());
+        searchIndex.index(saved);
+        eventPublisher.created(saved);
+        return saved;
     }
 
     public Product updateProduct(Long id, Product productDetails) {
-        Product product = getProductById(id);
-        product.setName(productDetails.getName());
-        product.setDescription(productDetails.getDescription());
-        product.setPrice(productDetails.getPrice());
-        product.setStock(productDetails.getStock());
-        return productRepository.save(product);
+        // Lock the row (not the shared cached copy) so the edit cannot overwrite a concurrent stock reservation
+        Product saved = transactionTemplate.execute(status -> {
+            Product product = productRepository.findByIdForUpdate(id)
+                    .orElseThrow(() -> new RuntimeException("Product not found with id " + id));
+            product.setName(productDetails.getName());
+            product.setDescription(productDetails.getDescription());
+            product.setPrice(productDetails.getPrice());
+            if (productDetails.getStock() != null) {
+                product.setStock(productDetails.getStock());
+            }
+            return productRepository.save(product);
+        });
+        afterWrite(id);
+        searchIndex.index(saved);
+        eventPublisher.updated(saved);
+        return saved;
     }
 
     public void deleteProduct(Long id) {
-        productRepository.deleteById(id);
+        Optional<Product> existing = productRepository.findById(id);
+        existing.ifPresent(productRepository::delete);
+        afterWrite(id);
+        searchIndex.remove(id);
+        existing.ifPresent(product -> eventPublisher.deleted(id, product.getVersion() + 1));
+    }
+
+    /**
+     * Applies a {@link BulkPriceUpdate} with a single UPDATE and refreshes the affected products.
+     *
+     * @throws IllegalArgumentException unless exactly one of category/ids and one of percent/price is given
+     */
+    public BulkPriceUpdate.Result updatePrices(BulkPriceUpdate request) {
+        boolean byIds = request.ids() != null && !request.ids().isEmpty();
+        if (byIds == (request.category() != null)) {
+            throw new IllegalArgumentException("Specify either a category or a list of ids");
+        }
+        if ((request.percent() == null) == (request.price() == null)) {
+            throw new IllegalArgumentException("Specify either a percent adjustment or a price");
+        }
+        if (request.percent() != null && request.percent() <= -100) {
+            throw new IllegalArgumentException("percent must be greater than -100");
+        }
+        if (request.price() != null && request.price() < 0) {
+            throw new IllegalArgumentException("price must not be negative");
+        }
+        List<Long> ids = byIds ? request.ids().stream().filter(Objects::nonNull).distinct().toList() : null;
+        if (byIds && ids.size() > maxBulkPriceIds) {
+            throw new IllegalArgumentException("At most " + maxBulkPriceIds + " ids can be repriced at once");
+        }
+
+        List<Long> affected = new ArrayList<>();
+        int updated = transactionTemplate.execute(status -> {
+            int count;
+            if (request.percent() != null) {
+                double factor = 1 + request.percent() / 100;
+                count = byIds ? productRepository.scalePricesByIds(ids, factor)
+                        : productRepository.scalePricesByCategory(request.category(), factor);
+            } else {
+                count = byIds ? productRepository.setPricesByIds(ids, request.price())
+                        : productRepository.setPricesByCategory(request.category(), request.price());
+            }
+            affected.addAll(byIds ? ids : productRepository.findIdsByCategory(request.category()));
+            return count;
+        });
+        refreshProducts(affected);
+        return new BulkPriceUpdate.Result(updated);
+    }
+
+    /**
+     * Drops bulk-written products from the cache, re-indexes them from the database in chunks,
+     * publishes their new state and tells the other replicas to do the same.
+     */
+    public void refreshProducts(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        List<Long> list = List.copyOf(ids);
+        for (int from = 0; from < list.size(); from += REFRESH_CHUNK) {
+            List<Long> chunk = list.subList(from, Math.min(list.size(), from + REFRESH_CHUNK));
+            chunk.forEach(productCache::invalidate);
+            Set<Long> gone = new HashSet<>(chunk);
+            for (Product product : productRepository.findAllById(chunk)) {
+                searchIndex.index(product);
+                gone.remove(product.getId());
+                eventPublisher.updated(product);
+            }
+            for (Long productId : gone) {
+                // The row is gone, so rank the delete above the last version this replica indexed
+                Long lastVersion = searchIndex.remove(productId);
+                if (lastVersion != null) {
+                    eventPublisher.deleted(productId, lastVersion + 1);
+                }
+            }
+        }
+        changeBroadcaster.productsChanged(list);
+    }
+
+    private void afterWrite(Long id) {
+        productCache.invalidate(id);
+        changeBroadcaster.productChanged(id);
+    }
+
+    public SearchResult search(String query, String category, Integer limit) {
+        return searchIndex.search(query, category, Math.min(maxPageSize, Math.max(1, limit == null ? defaultPageSize : limit)));
+    }
+
+    public List<String> suggest(String prefix, int limit) {
+        return searchIndex.suggest(prefix, Math.min(maxPageSize, Math.max(1, limit)));
+    }
+
+    public List<RelatedProduct> related(Long productId, int limit) {
+        return coPurchaseEngine.related(productId, Math.min(maxPageSize, Math.max(1, limit)));
+    }
+
+    /**
+     * @throws IllegalArgumentException if {@code window} is not one of 5m, 1h or 24h
+     */
+    public TrendingResult trending(String window, String category, int limit) {
+        return trendingTracker.top(TrendingTracker.Window.of(window), category, Math.min(maxPageSize, Math.max(1, limit)));
     }
 }
@@ -0,0 +1,190 @@
+package com.konecta.product_service.service;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.konecta.product_service.cache.ProductCache;
+import com.konecta.product_service.messaging.OrderCreatedEvent;
+import com.konecta.product_service.messaging.ProductChangeBroadcaster;
+import com.konecta.product_service.messaging.ProductEventPublisher;
+import com.konecta.product_service.messaging.StockReservationResult;
+import com.konecta.product_service.model.StockReservation;
+import com.konecta.product_service.repository.StockReservationRepository;
+import com.konecta.product_service.search.ProductSearchIndex;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Reserves stock for a batch of orders in one transaction. Every product the batch touches is
+ * locked once, orders are allocated first-come-first-served in memory, and each product then gets
+ * a single conditional decrement. A hot product therefore costs one row lock and one UPDATE per
+ * batch instead of one per order. Each order is all-or-nothing.
+ */
+@Service
+public class StockReservationService {
+
+    private static final String DECREMENT_SQL = "UPDATE products SET stock = stock - ?, version = version + 1 WHERE id = ? AND stock >= ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final StockReservationRepository reservationRepository;
+    private final ProductCache productCache;
+    private final ProductSearchIndex searchIndex;
+    private final ProductChangeBroadcaster changeBroadcaster;
+    private final ProductEventPublisher eventPublisher;
+
+    public StockReservationService(JdbcTemplate jdbcTemplate,
+                                   TransactionTemplate transactionTemplate,
+                                   StockReservationRepository reservationRepository,
+                                   ProductCache productCache,
+                                   ProductSearchIndex searchIndex,
+                                   ProductChangeBroadcaster changeBroadcaster,
+                                   ProductEventPublisher eventPublisher) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.reservationRepository = reservationRepository;
+        this.productCache = productCache;
+        this.searchIndex = searchIndex;
+        this.changeBroadcaster = changeBroadcaster;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Returns one result per distinct order, in arrival order. Orders that were already processed
+     * (redelivered events) get their stored result again and take no stock.
+     */
+    public List<StockReservationResult> reserve(List<OrderCreatedEvent> events) {
+        Map<Long, Integer> remaining = new HashMap<>();
+        Map<Long, Long> versions = new HashMap<>();
+        List<StockReservationResult> results = transactionTemplate.execute(status -> reserveLocked(events, remaining, versions));
+
+        // Only after commit, so no reader can re-cache the pre-reservation stock
+        remaining.forEach((productId, stock) -> {
+            productCache.invalidate(productId);
+            long version = versions.get(productId) + 1;
+            searchIndex.updateStock(productId, stock, version);
+            changeBroadcaster.productChanged(productId);
+            eventPublisher.stockChanged(productId, stock, version);
+        });
+        return results;
+    }
+
+    private List<StockReservationResult> reserveLocked(List<OrderCreatedEvent> events, Map<Long, Integer> remaining,
+                                                       Map<Long, Long> versions) {
+        Map<Long, OrderCreatedEvent> orders = new LinkedHashMap<>();
+        for (OrderCreatedEvent event : events) {
+            orders.putIfAbsent(event.getOrderId(), event);
+        }
+        Map<Long, StockReservation> processed = new HashMap<>();
+        reservationRepository.findAllById(orders.keySet()).forEach(r -> processed.put(r.getOrderId(), r));
+
+        Set<Long> productIds = new TreeSet<>();
+        for (OrderCreatedEvent event : orders.values()) {
+            if (!processed.containsKey(event.getOrderId()) && event.getItems() != null) {
+                event.getItems().stream()
+                        .filter(item -> item.getProductId() != null)
+                        .forEach(item -> productIds.add(item.getProductId()));
+            }
+        }
+        Map<Long, Integer> available = lockStock(productIds, versions);
+        Map<Long, Integer> taken = new HashMap<>();
+
+        List<StockReservationResult> results = new ArrayList<>(orders.size());
+        List<StockReservation> outcomes = new ArrayList<>();
+        Instant now = Instant.now();
+        for (OrderCreatedEvent event : orders.values()) {
+            StockReservation previous = processed.get(event.getOrderId());
+            if (previous != null) {
+                results.add(new StockReservationResult(previous.getOrderId(), previous.getStatus(), previous.getReason()));
+                continue;
+            }
+            String rejection = allocate(event, available, taken);
+            String status = rejection == null ? StockReservationResult.RESERVED : StockReservationResult.REJECTED;
+            results.add(new StockReservationResult(event.getOrderId(), status, rejection));
+            outcomes.add(StockReservation.builder()
+                    .orderId(event.getOrderId())
+                    .status(status)
+                    .reason(rejection)
+                    .createdAt(now)
+                    .build());
+        }
+
+        decrement(taken);
+        reservationRepository.saveAll(outcomes);
+        taken.keySet().forEach(productId -> remaining.put(productId, available.get(productId)));
+        return results;
+    }
+
+    /**
+     * Takes everything the order needs from {@code available}, or nothing. Returns the rejection
+     * reason, or {@code null} if the order was reserved.
+     */
+    private static String allocate(OrderCreatedEvent event, Map<Long, Integer> available, Map<Long, Integer> taken) {
+        if (event.getItems() == null || event.getItems().isEmpty()) {
+            return "Order has no items";
+        }
+        Map<Long, Integer> needed = new LinkedHashMap<>();
+        for (OrderCreatedEvent.Item item : event.getItems()) {
+            if (item.getProductId() == null || item.getQuantity() == null || item.getQuantity() <= 0) {
+                return "Invalid order item";
+            }
+            needed.merge(item.getProductId(), item.getQuantity(), Integer::sum);
+        }
+        for (Map.Entry<Long, Integer> need : needed.entrySet()) {
+            Integer stock = available.get(need.getKey());
+            if (stock == null) {
+                return "Unknown product " + need.getKey();
+            }
+            if (stock < need.getValue()) {
+                return "Insufficient stock for product " + need.getKey();
+            }
+        }
+        needed.forEach((productId, quantity) -> {
+            available.merge(productId, -quantity, Integer::sum);
+            taken.merge(productId, quantity, Integer::sum);
+        });
+        return null;
+    }
+
+    // Locks in primary key order so concurrent batches on other instances cannot deadlock
+    private Map<Long, Integer> lockStock(Set<Long> productIds, Map<Long, Long> versions) {
+        if (productIds.isEmpty()) {
+            return new HashMap<>();
+        }
+        String placeholders = String.join(",", Collections.nCopies(productIds.size(), "?"));
+        Map<Long, Integer> stock = new HashMap<>();
+        jdbcTemplate.query("SELECT id, stock, version FROM products WHERE id IN (" + placeholders + ") ORDER BY id FOR UPDATE",
+                rs -> {
+                    long id = rs.getLong("id");
+                    int value = rs.getInt("stock");
+                    stock.put(id, rs.wasNull() ? 0 : value);
+                    versions.put(id, rs.getLong("version"));
+                },
+                productIds.toArray());
+        return stock;
+    }
+
+    private void decrement(Map<Long, Integer> taken) {
+        if (taken.isEmpty()) {
+            return;
+        }
+        List<Object[]> args = new ArrayList<>(taken.size());
+        taken.forEach((productId, quantity) -> args.add(new Object[]{quantity, productId, quantity}));
+        int[] counts = jdbcTemplate.batchUpdate(DECREMENT_SQL, args);
+        for (int count : counts) {
+            // The rows are locked, so the guard can only fail if something bypassed the lock
+            if (count == 0) {
+                throw new IllegalStateException("Stock changed while reserved rows were locked");
+            }
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.konecta.product_service.trending;
+
+import java.util.Arrays;
+
+/**
+ * Count-Min Sketch over product ids: {@code depth} rows of {@code width} counters. An estimate never
+ * undercounts, and with probability {@code 1 - e^-depth} it overcounts by at most
+ * {@code e / width} times the total weight added.
+ */
+final class CountMinSketch {
+
+    private static final long[] SEEDS = {
+            0x9E3779B97F4A7C15L, 0xC2B2AE3D27D4EB4FL, 0x165667B19E3779F9L, 0xD6E8FEB86659FD93L,
+            0xFF51AFD7ED558CCDL, 0xC4CEB9FE1A85EC53L, 0x94D049BB133111EBL, 0xBF58476D1CE4E5B9L
+    };
+
+    private final int width;
+    private final int depth;
+    private final int shift;
+    private final long[] counters;
+    private long total;
+
+    CountMinSketch(int width, int depth) {
+        if (width < 2 || Integer.bitCount(width) != 1 || depth < 1 || depth > SEEDS.length) {
+            throw new IllegalArgumentException("width must be a power of two and depth between 1 and " + SEEDS.length);
+        }
+        this.width = width;
+        this.depth = depth;
+        this.shift = 64 - Integer.numberOfTrailingZeros(width);
+        this.counters = new long[width * depth];
+    }
+
+    void add(long item, long weight) {
+        for (int row = 0; row < depth; row++) {
+            counters[row * width + index(item, row)] += weight;
+        }
+        total += weight;
+    }
+
+    long estimate(long item) {
+        long min = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            min = Math.min(min, counters[row * width + index(item, row)]);
+        }
+        return min;
+    }
+
+    long total() {
+        return total;
+    }
+
+    void clear() {
+        Arrays.fill(counters, 0);
+        total = 0;
+    }
+
+    double epsilon() {
+        return Math.E / width;
+    }
+
+    double delta() {
+        return Math.exp(-depth);
+    }
+
+    private int index(long item, int row) {
+        // Multiplicative hashing: the top bits of the product are the well-mixed ones
+        return (int) (((item ^ (item >>> 33)) * SEEDS[row]) >>> shift);
+    }
+}
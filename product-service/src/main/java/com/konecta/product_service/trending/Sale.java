@@ -0,0 +1,7 @@
+package com.konecta.product_service.trending;
+
+/**
+ * Units of one product sold in an order; {@code category} may be {@code null} if it is unknown.
+ */
+public record Sale(long productId, String category, long units) {
+}
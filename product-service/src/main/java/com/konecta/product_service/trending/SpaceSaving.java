@@ -0,0 +1,54 @@
+package com.konecta.product_service.trending;
+
+import java.util.Arrays;
+
+/**
+ * Space-Saving heavy-hitter summary with {@code capacity} counters. Any item whose weight exceeds
+ * {@code total / capacity} is guaranteed to be held. The summary is small, so lookups and the
+ * minimum search are linear scans over primitive arrays.
+ */
+final class SpaceSaving {
+
+    private final long[] items;
+    private final long[] counts;
+    private int size;
+
+    SpaceSaving(int capacity) {
+        this.items = new long[capacity];
+        this.counts = new long[capacity];
+    }
+
+    void add(long item, long weight) {
+        int min = 0;
+        for (int i = 0; i < size; i++) {
+            if (items[i] == item) {
+                counts[i] += weight;
+                return;
+            }
+            if (counts[i] < counts[min]) {
+                min = i;
+            }
+        }
+        if (size < items.length) {
+            items[size] = item;
+            counts[size++] = weight;
+            return;
+        }
+        // Evict the smallest counter; the newcomer inherits its count as possible overestimation
+        items[min] = item;
+        counts[min] += weight;
+    }
+
+    int size() {
+        return size;
+    }
+
+    long itemAt(int i) {
+        return items[i];
+    }
+
+    void clear() {
+        Arrays.fill(counts, 0);
+        size = 0;
+    }
+}
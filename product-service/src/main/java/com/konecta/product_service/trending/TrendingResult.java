@@ -0,0 +1,23 @@
+package com.konecta.product_service.trending;
+
+import java.util.List;
+
+/**
+ * A trending leaderboard together with the guarantees of the sketches behind it.
+ *
+ * @param units           units sold in the window (in {@code category}, if one was requested)
+ * @param epsilon         Count-Min relative error: each {@code units} estimate exceeds the true value
+ *                        by at most {@code maxOverestimate}, with probability {@code 1 - delta}
+ * @param maxOverestimate {@code epsilon} times all units counted by the sketches in the window
+ * @param guaranteedAbove every product that sold more than this many units in the window is ranked
+ * @param windowStart     start of the oldest bucket counted; windows advance one bucket at a time
+ */
+public record TrendingResult(String window, String category, long units, double epsilon, double delta,
+                             long maxOverestimate, long guaranteedAbove, long windowStart, List<Item> items) {
+
+    /**
+     * {@code units} is an upper-bound estimate of the units sold in the window.
+     */
+    public record Item(long productId, long units) {
+    }
+}
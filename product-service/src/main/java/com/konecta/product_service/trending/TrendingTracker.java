@@ -0,0 +1,197 @@
+package com.konecta.product_service.trending;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * "Trending now" leaderboards over sliding windows in fixed memory. Each window is a ring of
+ * time buckets. A bucket holds a Count-Min Sketch of units per product, plus a Space-Saving
+ * summary of the top sellers overall and per category. A leaderboard takes the union of the
+ * summaries' candidates across the window's buckets and ranks them by summed sketch estimates.
+ */
+@Component
+public class TrendingTracker {
+
+    public enum Window {
+        FIVE_MINUTES("5m", Duration.ofSeconds(30), 10),
+        ONE_HOUR("1h", Duration.ofMinutes(5), 12),
+        ONE_DAY("24h", Duration.ofHours(1), 24);
+
+        private final String label;
+        private final long bucketMillis;
+        private final int buckets;
+
+        Window(String label, Duration bucket, int buckets) {
+            this.label = label;
+            this.bucketMillis = bucket.toMillis();
+            this.buckets = buckets;
+        }
+
+        public String label() {
+            return label;
+        }
+
+        public static Window of(String label) {
+            for (Window window : values()) {
+                if (window.label.equalsIgnoreCase(label)) {
+                    return window;
+                }
+            }
+            throw new IllegalArgumentException("Unknown window " + label + "; use 5m, 1h or 24h");
+        }
+    }
+
+    private static final class Summary {
+        final SpaceSaving top;
+        long units;
+
+        Summary(int capacity) {
+            this.top = new SpaceSaving(capacity);
+        }
+
+        void clear() {
+            top.clear();
+            units = 0;
+        }
+    }
+
+    private final class Bucket {
+        long start = Long.MIN_VALUE;
+        final CountMinSketch sketch = new CountMinSketch(sketchWidth, sketchDepth);
+        final Summary all = new Summary(topK);
+        final Map<String, Summary> byCategory = new HashMap<>();
+        // Cleared summaries kept for reuse, so a bucket never allocates more than max-categories of them
+        final ArrayDeque<Summary> spare = new ArrayDeque<>();
+
+        void reset(long newStart) {
+            start = newStart;
+            sketch.clear();
+            all.clear();
+            // Release every category slot, so categories that start selling later can be tracked
+            for (Summary summary : byCategory.values()) {
+                summary.clear();
+                spare.push(summary);
+            }
+            byCategory.clear();
+        }
+
+        void add(Sale sale) {
+            sketch.add(sale.productId(), sale.units());
+            all.top.add(sale.productId(), sale.units());
+            all.units += sale.units();
+            if (sale.category() == null) {
+                return;
+            }
+            Summary summary = byCategory.get(sale.category());
+            if (summary == null) {
+                if (byCategory.size() >= maxCategories) {
+                    return;
+                }
+                summary = spare.isEmpty() ? new Summary(topK) : spare.pop();
+                byCategory.put(sale.category(), summary);
+            }
+            summary.top.add(sale.productId(), sale.units());
+            summary.units += sale.units();
+        }
+    }
+
+    private final int sketchWidth;
+    private final int sketchDepth;
+    private final int topK;
+    private final int maxCategories;
+    private final Map<Window, Bucket[]> rings = new HashMap<>();
+
+    public TrendingTracker(@Value("${trending.sketch-width:2048}") int sketchWidth,
+                           @Value("${trending.sketch-depth:5}") int sketchDepth,
+                           @Value("${trending.top-k:256}") int topK,
+                           @Value("${trending.max-categories:64}") int maxCategories) {
+        this.sketchWidth = sketchWidth;
+        this.sketchDepth = sketchDepth;
+        this.topK = topK;
+        this.maxCategories = maxCategories;
+        for (Window window : Window.values()) {
+            Bucket[] ring = new Bucket[window.buckets];
+            for (int i = 0; i < ring.length; i++) {
+                ring[i] = new Bucket();
+            }
+            rings.put(window, ring);
+        }
+    }
+
+    public synchronized void record(List<Sale> sales) {
+        long now = System.currentTimeMillis();
+        for (Window window : Window.values()) {
+            Bucket bucket = current(window, now);
+            for (Sale sale : sales) {
+                if (sale.units() > 0) {
+                    bucket.add(sale);
+                }
+            }
+        }
+    }
+
+    /**
+     * Top sellers in {@code window}, across all categories when {@code category} is {@code null}.
+     */
+    public synchronized TrendingResult top(Window window, String category, int limit) {
+        long now = System.currentTimeMillis();
+        long currentStart = now - now % window.bucketMillis;
+        long oldestStart = currentStart - (window.buckets - 1) * window.bucketMillis;
+
+        List<Bucket> live = new ArrayList<>(window.buckets);
+        for (Bucket bucket : rings.get(window)) {
+            if (bucket.start >= oldestStart && bucket.start <= currentStart) {
+                live.add(bucket);
+            }
+        }
+
+        long units = 0;
+        long sketched = 0;
+        Set<Long> candidates = new HashSet<>();
+        for (Bucket bucket : live) {
+            sketched += bucket.sketch.total();
+            Summary summary = category == null ? bucket.all : bucket.byCategory.get(category);
+            if (summary == null) {
+                continue;
+            }
+            units += summary.units;
+            for (int i = 0; i < summary.top.size(); i++) {
+                candidates.add(summary.top.itemAt(i));
+            }
+        }
+
+        List<TrendingResult.Item> items = new ArrayList<>(candidates.size());
+        for (Long productId : candidates) {
+            long estimate = 0;
+            for (Bucket bucket : live) {
+                estimate += bucket.sketch.estimate(productId);
+            }
+            items.add(new TrendingResult.Item(productId, estimate));
+        }
+        items.sort((a, b) -> Long.compare(b.units(), a.units()));
+
+        CountMinSketch sketch = rings.get(window)[0].sketch;
+        double epsilon = sketch.epsilon();
+        return new TrendingResult(window.label(), category, units, epsilon, sketch.delta(),
+                (long) Math.ceil(epsilon * sketched), units / topK, oldestStart,
+                List.copyOf(items.subList(0, Math.min(limit, items.size()))));
+    }
+
+    private Bucket current(Window window, long now) {
+        long start = now - now % window.bucketMillis;
+        Bucket bucket = rings.get(window)[(int) ((start / window.bucketMillis) % window.buckets)];
+        if (bucket.start != start) {
+            bucket.reset(start);
+        }
+        return bucket;
+    }
+}
@@ -0,0 +1,67 @@
+package com.konecta.product_service.recommend;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class CoPurchaseEngineTests {
+
+    // Long enough that decay is negligible while a test runs
+    private static final Duration HALF_LIFE = Duration.ofDays(3650);
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void ranksProductsByHowOftenTheyWereBoughtTogether() {
+        CoPurchaseEngine engine = new CoPurchaseEngine(HALF_LIFE, 100, 0f, 50, "");
+        engine.record(List.of(
+                new long[]{1, 2, 3},
+                new long[]{1, 2},
+                new long[]{1, 2, 4},
+                new long[]{1, 3}));
+
+        List<RelatedProduct> related = engine.related(1, 10);
+
+        assertThat(related).extracting(RelatedProduct::productId).containsExactly(2L, 3L, 4L);
+        assertThat(related.get(0).score()).isCloseTo(3.0, within(1e-3));
+        assertThat(engine.related(1, 1)).extracting(RelatedProduct::productId).containsExactly(2L);
+        assertThat(engine.related(99, 10)).isEmpty();
+    }
+
+    @Test
+    void maintenanceDropsWeakPairsAndCapsNeighbours() {
+        CoPurchaseEngine engine = new CoPurchaseEngine(HALF_LIFE, 2, 1.5f, 50, "");
+        engine.record(List.of(
+                new long[]{1, 2}, new long[]{1, 2}, new long[]{1, 2},
+                new long[]{1, 3}, new long[]{1, 3},
+                new long[]{1, 4}, new long[]{1, 4},
+                new long[]{1, 5}));
+
+        engine.maintain();
+
+        // 3 and 4 tie for the second neighbour slot and 5 is below min-count
+        assertThat(engine.related(1, 10)).extracting(RelatedProduct::productId).containsExactly(2L);
+        assertThat(engine.related(5, 10)).isEmpty();
+    }
+
+    @Test
+    void snapshotRoundTrips() {
+        String path = dir.resolve("copurchase.bin").toString();
+        CoPurchaseEngine engine = new CoPurchaseEngine(HALF_LIFE, 100, 0f, 50, path);
+        engine.record(List.of(new long[]{1, 2}, new long[]{1, 2}, new long[]{1, 3}));
+        engine.writeSnapshot();
+
+        CoPurchaseEngine restored = new CoPurchaseEngine(HALF_LIFE, 100, 0f, 50, path);
+        restored.loadSnapshot();
+
+        assertThat(restored.related(1, 10)).extracting(RelatedProduct::productId).containsExactly(2L, 3L);
+        assertThat(restored.size()).isEqualTo(engine.size());
+    }
+}
@@ -0,0 +1,72 @@
+package com.konecta.product_service.recommend;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LongFloatMapTests {
+
+    @Test
+    void addAccumulatesAcrossResizes() {
+        LongFloatMap map = new LongFloatMap(1);
+        for (long key = 1; key <= 1000; key++) {
+            map.add(key, key);
+            map.add(key, 0.5f);
+        }
+
+        assertThat(map.size()).isEqualTo(1000);
+        assertThat(map.get(1)).isEqualTo(1.5f);
+        assertThat(map.get(1000)).isEqualTo(1000.5f);
+        assertThat(map.get(1001)).isZero();
+    }
+
+    @Test
+    void prunedScalesAndDropsValuesBelowTheMinimum() {
+        LongFloatMap map = map(10f, 4f, 1f);
+
+        LongFloatMap pruned = map.pruned(0.5f, 1f, 10);
+
+        assertThat(pruned.size()).isEqualTo(2);
+        assertThat(pruned.get(1)).isEqualTo(5f);
+        assertThat(pruned.get(2)).isEqualTo(2f);
+        assertThat(pruned.get(3)).isZero();
+    }
+
+    @Test
+    void prunedKeepsOnlyTheLargestEntries() {
+        LongFloatMap map = map(1f, 7f, 3f, 9f, 5f);
+
+        LongFloatMap pruned = map.pruned(1f, 0f, 2);
+
+        assertThat(pruned.size()).isEqualTo(2);
+        assertThat(pruned.get(4)).isEqualTo(9f);
+        assertThat(pruned.get(2)).isEqualTo(7f);
+    }
+
+    @Test
+    void prunedNeverExceedsTheLimitOnTiesAtTheCutOff() {
+        LongFloatMap map = map(5f, 3f, 3f, 3f, 1f);
+
+        LongFloatMap pruned = map.pruned(1f, 0f, 3);
+
+        // The three-way tie cannot be split, so all of it falls below the cut-off
+        assertThat(pruned.size()).isEqualTo(1);
+        assertThat(pruned.get(1)).isEqualTo(5f);
+    }
+
+    @Test
+    void prunedWithinTheLimitKeepsEverythingAboveTheMinimum() {
+        LongFloatMap map = map(2f, 2f, 2f);
+
+        assertThat(map.pruned(1f, 2f, 3).size()).isEqualTo(3);
+    }
+
+    // Keys are 1..n in argument order
+    private static LongFloatMap map(float... values) {
+        LongFloatMap map = new LongFloatMap(values.length);
+        for (int i = 0; i < values.length; i++) {
+            map.put(i + 1, values[i]);
+        }
+        return map;
+    }
+}
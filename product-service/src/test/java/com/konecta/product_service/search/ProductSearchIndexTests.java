@@ -0,0 +1,101 @@
+package com.konecta.product_service.search;
+
+import com.konecta.product_service.model.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductSearchIndexTests {
+
+    private ProductSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        // Only load() reads the repository; these tests index products directly
+        index = new ProductSearchIndex(null);
+        index.index(product(1L, "Wireless Mouse", "Compact mouse with bluetooth", "Accessories"));
+        index.index(product(2L, "Mouse Pad", "Large desk pad", "Accessories"));
+        index.index(product(3L, "Bluetooth Speaker", "Portable speaker", "Audio"));
+        index.index(product(4L, "Gaming Keyboard", "Mechanical keyboard for a mouse and keyboard setup", "Peripherals"));
+    }
+
+    @Test
+    void ranksNameMatchesAboveDescriptionMatches() {
+        SearchResult result = index.search("bluetooth", null, 10);
+
+        assertThat(result.hits()).extracting(SearchResult.Hit::id).containsExactly(3L, 1L);
+    }
+
+    @Test
+    void requiresEveryTermAndExpandsTheLastOneAsPrefix() {
+        assertThat(ids(index.search("wireless mo", null, 10))).containsExactly(1L);
+        assertThat(ids(index.search("speaker mouse", null, 10))).isEmpty();
+        assertThat(ids(index.search("blue", null, 10))).containsExactlyInAnyOrder(1L, 3L);
+    }
+
+    @Test
+    void categoryFilterNarrowsHitsButNotFacets() {
+        SearchResult result = index.search("mouse", "Accessories", 10);
+
+        assertThat(result.total()).isEqualTo(2);
+        assertThat(ids(result)).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(result.categories()).containsEntry("Accessories", 2).containsEntry("Peripherals", 1);
+    }
+
+    @Test
+    void returnsOnlyTheBestHitsInScoreOrder() {
+        ProductSearchIndex large = new ProductSearchIndex(null);
+        // Product i mentions "cable" i times in its description, so higher ids score higher
+        IntStream.rangeClosed(1, 50).forEach(i ->
+                large.index(product((long) i, "Item " + i, "cable ".repeat(i), null)));
+
+        SearchResult result = large.search("cable", null, 5);
+
+        assertThat(result.total()).isEqualTo(50);
+        assertThat(ids(result)).containsExactly(50L, 49L, 48L, 47L, 46L);
+        assertThat(result.hits()).extracting(SearchResult.Hit::score).isSortedAccordingTo((a, b) -> Float.compare(b, a));
+    }
+
+    @Test
+    void reindexingReplacesTheOldTerms() {
+        index.index(product(2L, "Desk Mat", "Large desk mat", "Accessories"));
+
+        assertThat(ids(index.search("pad", null, 10))).isEmpty();
+        assertThat(ids(index.search("mat", null, 10))).containsExactly(2L);
+    }
+
+    @Test
+    void removeReturnsTheLastIndexedVersion() {
+        index.updateStock(3L, 7, 5L);
+
+        assertThat(index.remove(3L)).isEqualTo(5L);
+        assertThat(index.remove(3L)).isNull();
+        assertThat(ids(index.search("speaker", null, 10))).isEmpty();
+    }
+
+    @Test
+    void suggestsMostCommonCompletionsFirst() {
+        assertThat(index.suggest("m", 10)).containsExactly("mouse", "mechanical");
+        assertThat(index.suggest("gaming m", 1)).containsExactly("mouse");
+    }
+
+    private static List<Long> ids(SearchResult result) {
+        return result.hits().stream().map(SearchResult.Hit::id).toList();
+    }
+
+    private static Product product(Long id, String name, String description, String category) {
+        return Product.builder()
+                .id(id)
+                .name(name)
+                .description(description)
+                .price(10.0)
+                .stock(1)
+                .category(category)
+                .version(0L)
+                .build();
+    }
+}
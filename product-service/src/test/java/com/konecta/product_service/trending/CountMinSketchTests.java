@@ -0,0 +1,65 @@
+package com.konecta.product_service.trending;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CountMinSketchTests {
+
+    @Test
+    void neverUndercountsAndStaysWithinTheErrorBound() {
+        CountMinSketch sketch = new CountMinSketch(256, 5);
+        Map<Long, Long> truth = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 20_000; i++) {
+            // Skewed ids, including large and negative ones, to exercise every bit of the hash
+            long item = random.nextInt(10) < 3 ? random.nextInt(20) : random.nextLong();
+            long weight = 1 + random.nextInt(3);
+            sketch.add(item, weight);
+            truth.merge(item, weight, Long::sum);
+        }
+
+        long bound = (long) Math.ceil(sketch.epsilon() * sketch.total());
+        long outside = truth.entrySet().stream()
+                .filter(e -> sketch.estimate(e.getKey()) > e.getValue() + bound)
+                .count();
+
+        assertThat(truth).allSatisfy((item, count) -> assertThat(sketch.estimate(item)).isGreaterThanOrEqualTo(count));
+        // delta = e^-5 ~ 0.7%; allow for it
+        assertThat(outside).isLessThanOrEqualTo((long) Math.ceil(truth.size() * sketch.delta() * 2));
+    }
+
+    @Test
+    void smallestWidthStillHashesIntoRange() {
+        CountMinSketch sketch = new CountMinSketch(2, 8);
+        for (long item = -1000; item <= 1000; item++) {
+            sketch.add(item, 1);
+        }
+
+        assertThat(sketch.total()).isEqualTo(2001);
+        assertThat(sketch.estimate(Long.MAX_VALUE)).isBetween(0L, 2001L);
+    }
+
+    @Test
+    void clearResetsCounts() {
+        CountMinSketch sketch = new CountMinSketch(64, 3);
+        sketch.add(7, 10);
+
+        sketch.clear();
+
+        assertThat(sketch.estimate(7)).isZero();
+        assertThat(sketch.total()).isZero();
+    }
+
+    @Test
+    void rejectsWidthsThatAreNotPowersOfTwo() {
+        assertThatThrownBy(() -> new CountMinSketch(100, 3)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new CountMinSketch(1, 3)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new CountMinSketch(64, 9)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
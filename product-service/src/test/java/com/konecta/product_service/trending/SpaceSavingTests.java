@@ -0,0 +1,67 @@
+package com.konecta.product_service.trending;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SpaceSavingTests {
+
+    @Test
+    void keepsEveryItemAboveTotalOverCapacity() {
+        SpaceSaving summary = new SpaceSaving(4);
+        // 300 units in total, so anything above 75 must survive; 1 and 2 interleave with the noise
+        for (long noise = 100; noise < 300; noise++) {
+            summary.add(noise, 1);
+            if (noise % 4 == 0) {
+                summary.add(1, 2);
+            } else if (noise % 4 == 1) {
+                summary.add(2, 1);
+            }
+        }
+
+        assertThat(items(summary)).contains(1L).hasSize(4);
+    }
+
+    @Test
+    void accumulatesRepeatedItemsWithoutEvicting() {
+        SpaceSaving summary = new SpaceSaving(3);
+        summary.add(1, 5);
+        summary.add(2, 1);
+        summary.add(1, 5);
+        summary.add(3, 1);
+
+        assertThat(items(summary)).containsExactlyInAnyOrder(1L, 2L, 3L);
+    }
+
+    @Test
+    void newcomerReplacesTheSmallestCounter() {
+        SpaceSaving summary = new SpaceSaving(2);
+        summary.add(1, 10);
+        summary.add(2, 1);
+        summary.add(3, 1);
+
+        assertThat(items(summary)).containsExactlyInAnyOrder(1L, 3L);
+    }
+
+    @Test
+    void clearEmptiesTheSummary() {
+        SpaceSaving summary = new SpaceSaving(2);
+        summary.add(1, 1);
+
+        summary.clear();
+        summary.add(2, 1);
+
+        assertThat(items(summary)).containsExactly(2L);
+    }
+
+    private static Set<Long> items(SpaceSaving summary) {
+        Set<Long> items = new HashSet<>();
+        for (int i = 0; i < summary.size(); i++) {
+            items.add(summary.itemAt(i));
+        }
+        return items;
+    }
+}
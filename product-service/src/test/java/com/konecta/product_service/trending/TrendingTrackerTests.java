@@ -0,0 +1,44 @@
+package com.konecta.product_service.trending;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TrendingTrackerTests {
+
+    @Test
+    void ranksTopSellersOverallAndPerCategory() {
+        TrendingTracker tracker = new TrendingTracker(2048, 5, 16, 8);
+        List<Sale> sales = new ArrayList<>();
+        for (long product = 1; product <= 200; product++) {
+            sales.add(new Sale(product, product % 2 == 0 ? "even" : "odd", 1));
+        }
+        sales.add(new Sale(7, "odd", 50));
+        sales.add(new Sale(8, "even", 40));
+        sales.add(new Sale(9, "odd", 30));
+        tracker.record(sales);
+
+        TrendingResult all = tracker.top(TrendingTracker.Window.FIVE_MINUTES, null, 3);
+        TrendingResult even = tracker.top(TrendingTracker.Window.ONE_DAY, "even", 1);
+
+        assertThat(all.items()).extracting(TrendingResult.Item::productId).containsExactly(7L, 8L, 9L);
+        assertThat(all.units()).isEqualTo(320);
+        assertThat(all.items().get(0).units()).isBetween(51L, 51L + all.maxOverestimate());
+        assertThat(even.items()).extracting(TrendingResult.Item::productId).containsExactly(8L);
+        assertThat(even.units()).isEqualTo(140);
+    }
+
+    @Test
+    void categoriesBeyondTheLimitAreNotTracked() {
+        TrendingTracker tracker = new TrendingTracker(256, 3, 8, 2);
+        tracker.record(List.of(new Sale(1, "a", 1), new Sale(2, "b", 1), new Sale(3, "c", 1)));
+
+        // Only max-categories summaries are kept per bucket
+        assertThat(tracker.top(TrendingTracker.Window.ONE_HOUR, "c", 10).items()).isEmpty();
+        assertThat(tracker.top(TrendingTracker.Window.ONE_HOUR, "a", 10).items())
+                .extracting(TrendingResult.Item::productId).containsExactly(1L);
+    }
+}